@@ -0,0 +1,89 @@
+package com.bakdata.commons.serialization;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the CPU cost of {@link CompressingSerializer} against the bytes it saves. Values are
+ * JSON-like strings, which compress well, of different sizes. The {@code bytes} counter reports the
+ * size of a serialized value.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CompressionBenchmark {
+
+  @Param({"none", "LZ4", "DEFLATE"})
+  private String codec;
+  @Param({"256", "4096", "65536"})
+  private int size;
+  private Serializer<String> serializer;
+  private String value;
+  private byte[] bytes;
+
+  private static String createValue(int size) {
+    StringBuilder sb = new StringBuilder(size + 64);
+    for (int i = 0; sb.length() < size; i++) {
+      sb.append("{\"id\":").append(i)
+          .append(",\"name\":\"user").append(i % 97)
+          .append("\",\"email\":\"user").append(i % 97).append("@example.com\"")
+          .append(",\"score\":").append(i * 31 % 1000).append('}');
+    }
+    return sb.substring(0, size);
+  }
+
+  @Setup
+  public void setup() throws SerializationException {
+    if ("none".equals(codec)) {
+      serializer = StringSerializer.INSTANCE;
+    } else {
+      serializer = new CompressingSerializer<>(StringSerializer.INSTANCE,
+          CompressionCodec.valueOf(codec), 0);
+    }
+    value = createValue(size);
+    bytes = serializer.serialize(value);
+  }
+
+  @Benchmark
+  public String deserialize() throws SerializationException {
+    return serializer.deserialize(bytes);
+  }
+
+  @Benchmark
+  public byte[] serialize(SerializedSize serializedSize) throws SerializationException {
+    byte[] serialized = serializer.serialize(value);
+    serializedSize.bytes = serialized.length;
+    return serialized;
+  }
+
+  /**
+   * Reports the size of serialized values next to the throughput.
+   */
+  @AuxCounters(Type.EVENTS)
+  @State(Scope.Thread)
+  public static class SerializedSize {
+
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytes = 0L;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.bakdata.commons.serialization;
+
+import java.io.Serializable;
+
+/**
+ * Typical value object to compare general-purpose serializers with.
+ */
+public class Person implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private long id;
+  private String name;
+  private String email;
+  private int age;
+  private double score;
+
+  public Person() {
+  }
+
+  Person(long id, String name, String email, int age, double score) {
+    this.id = id;
+    this.name = name;
+    this.email = email;
+    this.age = age;
+    this.score = score;
+  }
+}
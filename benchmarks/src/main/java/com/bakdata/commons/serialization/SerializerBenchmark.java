@@ -0,0 +1,128 @@
+package com.bakdata.commons.serialization;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serialization and deserialization of a single value for every {@link Serializer}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SerializerBenchmark {
+
+  private static final int BUF_PADDING = 16;
+  @Param({"boolean", "byte", "byte[]", "char", "double", "float", "int", "kryo", "kryo-person",
+      "long", "object", "object-person", "short", "string"})
+  private String type;
+  private Serializer<Object> serializer;
+  private Object value;
+  private byte[] bytes;
+  // serialized value embedded in a larger buffer, like the backing array of an HBase cell
+  private byte[] buf;
+
+  @SuppressWarnings("unchecked")
+  private static Serializer<Object> cast(Serializer<?> serializer) {
+    return (Serializer<Object>) serializer;
+  }
+
+  private static Person createPerson() {
+    return new Person(42L, "Jane Doe", "jane.doe@example.com", 42, 0.42);
+  }
+
+  @Setup
+  public void setup() throws SerializationException {
+    switch (type) {
+      case "boolean":
+        serializer = cast(BooleanSerializer.INSTANCE);
+        value = true;
+        break;
+      case "byte":
+        serializer = cast(ByteSerializer.INSTANCE);
+        value = (byte) 42;
+        break;
+      case "byte[]":
+        serializer = cast(new ByteArraySerializer());
+        value = "Hello World".getBytes();
+        break;
+      case "char":
+        serializer = cast(new CharSerializer());
+        value = 'c';
+        break;
+      case "double":
+        serializer = cast(DoubleSerializer.INSTANCE);
+        value = 42.0;
+        break;
+      case "float":
+        serializer = cast(new FloatSerializer());
+        value = 42.0F;
+        break;
+      case "int":
+        serializer = cast(IntSerializer.INSTANCE);
+        value = 42;
+        break;
+      case "kryo":
+        serializer = new KryoSerializer();
+        value = "Hello World";
+        break;
+      case "kryo-person":
+        serializer = new KryoSerializer(Collections.singletonList(Person.class));
+        value = createPerson();
+        break;
+      case "long":
+        serializer = cast(LongSerializer.INSTANCE);
+        value = 42L;
+        break;
+      case "object":
+        serializer = ObjectSerializer.INSTANCE;
+        value = "Hello World";
+        break;
+      case "object-person":
+        serializer = ObjectSerializer.INSTANCE;
+        value = createPerson();
+        break;
+      case "short":
+        serializer = cast(ShortSerializer.INSTANCE);
+        value = (short) 42;
+        break;
+      case "string":
+        serializer = cast(StringSerializer.INSTANCE);
+        value = "Hello World";
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type " + type);
+    }
+    bytes = serializer.serialize(value);
+    buf = new byte[bytes.length + 2 * BUF_PADDING];
+    System.arraycopy(bytes, 0, buf, BUF_PADDING, bytes.length);
+  }
+
+  @Benchmark
+  public Object deserialize() throws SerializationException {
+    return serializer.deserialize(bytes);
+  }
+
+  @Benchmark
+  public Object deserializeRange() throws SerializationException {
+    return serializer.deserialize(buf, BUF_PADDING, bytes.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws SerializationException {
+    return serializer.serialize(value);
+  }
+}
@@ -0,0 +1,195 @@
+package com.bakdata.ignite.hbase;
+
+import com.bakdata.commons.serialization.Serializer;
+import com.bakdata.commons.serialization.StringSerializer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache;
+import javax.cache.configuration.FactoryBuilder;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.CacheAtomicityMode;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link HBaseCacheStore} end-to-end through a single Ignite node backed by an in-process
+ * HBase cluster. Read benchmarks clear the Ignite cache first so that every read goes to HBase.
+ * {@link #loadBatchesOfOne()} and {@link #writeBatchesOfOne()} repeat {@link #load()} and {@link
+ * #write()} with a store sending single keys as batches of one.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HBaseCacheStoreBenchmark {
+
+  private static final String TABLE_NAME = "BENCHMARK";
+  private static final String CACHE_NAME = "benchmark";
+  private static final String BATCH_OF_ONE_CACHE_NAME = "benchmarkBatchOfOne";
+  @Param({"100", "10000"})
+  private int batchSize;
+  private HBaseTestingUtility utility;
+  private Ignite ignite;
+  private IgniteCache<String, String> cache;
+  private IgniteCache<String, String> batchOfOneCache;
+  private Map<String, String> entries;
+
+  private static IgniteConfiguration createIgniteConfig(HBaseTestingUtility utility) {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    for (Entry<String, String> entry : utility.getConfiguration()) {
+      cssl.addProperty(entry.getKey(), entry.getValue());
+    }
+    HBaseCacheStore<String, String> cs = new HBaseCacheStore<>(StringSerializer.INSTANCE,
+        StringSerializer.INSTANCE);
+    HBaseCacheStore<String, String> batchOfOneCs = new BatchOfOneStore<>(
+        StringSerializer.INSTANCE, StringSerializer.INSTANCE);
+    TcpDiscoveryVmIpFinder ipFinder = new TcpDiscoveryVmIpFinder(true);
+    IgniteConfiguration cfg = new IgniteConfiguration();
+    cfg.setDiscoverySpi(new TcpDiscoverySpi().setIpFinder(ipFinder));
+    cfg.setCacheConfiguration(createCacheConfig(CACHE_NAME, cs, cssl),
+        createCacheConfig(BATCH_OF_ONE_CACHE_NAME, batchOfOneCs, cssl));
+    return cfg;
+  }
+
+  private static CacheConfiguration<String, String> createCacheConfig(String cacheName,
+      HBaseCacheStore<String, String> cs, HBaseCacheStoreSessionListener cssl) {
+    CacheConfiguration<String, String> cacheCfg = new CacheConfiguration<>(cacheName);
+    cacheCfg.setReadThrough(true);
+    cacheCfg.setWriteThrough(true);
+    cacheCfg.setAtomicityMode(CacheAtomicityMode.ATOMIC);
+    cacheCfg.setCacheStoreFactory(FactoryBuilder.factoryOf(cs));
+    cacheCfg.setCacheStoreSessionListenerFactories(FactoryBuilder.factoryOf(cssl));
+    return cacheCfg;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    // HBase fails to start if the path of the test directory is too long
+    System.setProperty(HBaseTestingUtility.BASE_TEST_DIRECTORY_KEY,
+        Files.createTempDirectory("hbase").toString());
+    utility = new HBaseTestingUtility();
+    utility.startMiniCluster();
+    ignite = Ignition.start(createIgniteConfig(utility));
+    cache = ignite.cache(CACHE_NAME);
+    batchOfOneCache = ignite.cache(BATCH_OF_ONE_CACHE_NAME);
+    entries = new HashMap<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      entries.put("Hello" + i, "World" + i);
+    }
+    cache.putAll(entries);
+    batchOfOneCache.putAll(entries);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    ignite.close();
+    utility.shutdownMiniCluster();
+  }
+
+  @Benchmark
+  public int load() {
+    cache.clear();
+    int count = 0;
+    for (String key : entries.keySet()) {
+      count += cache.get(key) != null ? 1 : 0;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int loadBatchesOfOne() {
+    batchOfOneCache.clear();
+    int count = 0;
+    for (String key : entries.keySet()) {
+      count += batchOfOneCache.get(key) != null ? 1 : 0;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public Map<String, String> loadAll() {
+    cache.clear();
+    return cache.getAll(entries.keySet());
+  }
+
+  @Benchmark
+  public int loadCache() {
+    cache.clear();
+    cache.localLoadCache(null);
+    return cache.localSize();
+  }
+
+  @Benchmark
+  public void writeAll() {
+    cache.putAll(entries);
+  }
+
+  @Benchmark
+  public void write() {
+    for (Entry<String, String> entry : entries.entrySet()) {
+      cache.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Benchmark
+  public void writeBatchesOfOne() {
+    for (Entry<String, String> entry : entries.entrySet()) {
+      batchOfOneCache.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Benchmark
+  public void deleteAll() {
+    Set<String> keys = entries.keySet();
+    cache.removeAll(keys);
+    cache.putAll(entries);
+  }
+
+  /**
+   * Sends single keys as batches of one instead of using the single-key paths of {@link
+   * HBaseCacheStore}. Ignite itself passes batches of one to {@code load} and {@code write}.
+   */
+  private static final class BatchOfOneStore<K, V> extends HBaseCacheStore<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private BatchOfOneStore(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+      super(keySerializer, valueSerializer);
+    }
+
+    @Override
+    public V load(K key) {
+      return loadAll(Collections.singletonList(key)).get(key);
+    }
+
+    @Override
+    public void write(Cache.Entry<? extends K, ? extends V> entry) {
+      writeAll(Collections.singletonList(entry));
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.bakdata.ignite.hbase;
+
+import com.bakdata.commons.serialization.SerializationException;
+import com.bakdata.commons.serialization.Serializer;
+import com.bakdata.commons.serialization.StringSerializer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache.Entry;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of cache entries to HBase operations and back. {@link #cachedFamily()}
+ * and {@link #encodedFamily()} compare creating a {@link Put} with the column family resolved once
+ * per cache against encoding the cache name for every mutation. {@link #writeSingle()} and {@link
+ * #writeSingleViaBatch()} compare converting a single entry against a batch of one. Run with
+ * {@code -prof gc} to see the allocation per operation.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RowConverterBenchmark {
+
+  private static final String CACHE_NAME = "myCache";
+  private static final byte[] QUALIFIER = "value".getBytes();
+  private final Serializer<String> serializer = StringSerializer.INSTANCE;
+  private RowConverter<String, String> converter;
+  private Entry<String, String> entry;
+
+  @Setup
+  public void setup() {
+    converter = new RowConverter<>(CACHE_NAME, serializer, serializer, null);
+    entry = new SimpleEntry<>("Hello", "World");
+  }
+
+  @Benchmark
+  public List<Get> createGets(Batch batch) {
+    return converter.createGets(batch.keys);
+  }
+
+  @Benchmark
+  public List<Put> createPuts(Batch batch) {
+    return converter.createPuts(batch.entries);
+  }
+
+  @Benchmark
+  public Map<String, String> resultsToMap(Batch batch) {
+    return converter.resultsToMap(batch.results);
+  }
+
+  @Benchmark
+  public Put cachedFamily() {
+    return converter.createPut(entry);
+  }
+
+  @Benchmark
+  public Put encodedFamily() throws SerializationException {
+    Put put = new Put(serializer.serialize(entry.getKey()));
+    put.addColumn(CACHE_NAME.getBytes(), QUALIFIER, serializer.serialize(entry.getValue()));
+    return put;
+  }
+
+  @Benchmark
+  public Put writeSingle() {
+    return converter.createPut(entry);
+  }
+
+  @Benchmark
+  public List<Put> writeSingleViaBatch() {
+    return converter.createPuts(Collections.singletonList(entry));
+  }
+
+  @State(Scope.Benchmark)
+  public static class Batch {
+
+    @Param({"1", "100", "10000"})
+    private int batchSize;
+    private List<String> keys;
+    private Collection<Entry<? extends String, ? extends String>> entries;
+    private List<Result> results;
+
+    @Setup
+    public void setup() {
+      keys = new ArrayList<>(batchSize);
+      entries = new ArrayList<>(batchSize);
+      results = new ArrayList<>(batchSize);
+      for (int i = 0; i < batchSize; i++) {
+        String key = "Hello" + i;
+        String value = "World" + i;
+        keys.add(key);
+        entries.add(new SimpleEntry<>(key, value));
+        Cell cell = new KeyValue(key.getBytes(), CACHE_NAME.getBytes(), QUALIFIER,
+            value.getBytes());
+        results.add(Result.create(Collections.singletonList(cell)));
+      }
+    }
+  }
+}
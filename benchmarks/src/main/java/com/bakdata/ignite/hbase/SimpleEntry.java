@@ -0,0 +1,32 @@
+package com.bakdata.ignite.hbase;
+
+import javax.cache.Cache.Entry;
+
+/**
+ * Minimal cache entry to feed {@link HBaseCacheStore} and {@link RowConverter} in benchmarks.
+ */
+final class SimpleEntry<K, V> implements Entry<K, V> {
+
+  private final K key;
+  private final V value;
+
+  SimpleEntry(K key, V value) {
+    this.key = key;
+    this.value = value;
+  }
+
+  @Override
+  public K getKey() {
+    return key;
+  }
+
+  @Override
+  public V getValue() {
+    return value;
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> clazz) {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -21,11 +21,11 @@ class AdminContext {
     this.admin = admin;
   }
 
-  void ensureTableAndColumnFamilyExists(HColumnDescriptor family, TableName table)
-      throws IOException {
+  void ensureTableAndColumnFamilyExists(HColumnDescriptor family, TableName table,
+      byte[][] splitKeys) throws IOException {
     log.debug("Ensuring HBase table '{}' exists", table.getNameAsString());
     if (!admin.tableExists(table)) {
-      createTable(family, table);
+      createTable(family, table, splitKeys);
     } else {
       ensureColumnFamilyExists(family, table);
     }
@@ -76,11 +76,16 @@ class AdminContext {
     }
   }
 
-  private void createTable(HColumnDescriptor family, TableName table) throws IOException {
+  private void createTable(HColumnDescriptor family, TableName table, byte[][] splitKeys)
+      throws IOException {
     HTableDescriptor hbTable = new HTableDescriptor(table);
     hbTable.addFamily(family);
     try {
-      admin.createTable(hbTable);
+      if (splitKeys == null || splitKeys.length == 0) {
+        admin.createTable(hbTable);
+      } else {
+        admin.createTable(hbTable, splitKeys);
+      }
     } catch (TableExistsException e) {
       if (!admin.tableExists(table)) {
         //Schroedinger's cat: TableExistsException but does not exist at the same time
@@ -89,6 +94,7 @@ class AdminContext {
       //table was created in the meantime
       return;
     }
-    log.info("Created HBase table '{}'", table.getNameAsString());
+    log.info("Created HBase table '{}' with {} regions", table.getNameAsString(),
+        splitKeys == null ? 1 : splitKeys.length + 1);
   }
 }
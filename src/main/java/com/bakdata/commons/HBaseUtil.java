@@ -50,10 +50,25 @@ public final class HBaseUtil {
    */
   public static void ensureTableAndColumnFamilyExist(Connection conn, String tableName,
       String familyName) throws IOException {
+    ensureTableAndColumnFamilyExist(conn, tableName, new HColumnDescriptor(familyName), null);
+  }
+
+  /**
+   * Ensure that the given table and column family exist in an HBase instance. If they do not
+   * exists, they are created. Existing tables and column families are not altered.
+   *
+   * @param conn HBase connection
+   * @param tableName name of table to create
+   * @param family descriptor of column family to create
+   * @param splitKeys start keys of all but the first region of the table if it is created. May be
+   * null to create a table with a single region.
+   * @throws IOException if an error occurs accessing HBase
+   */
+  public static void ensureTableAndColumnFamilyExist(Connection conn, String tableName,
+      HColumnDescriptor family, byte[][] splitKeys) throws IOException {
     try (Admin admin = conn.getAdmin()) {
-      HColumnDescriptor family = new HColumnDescriptor(familyName);
       TableName table = TableName.valueOf(tableName);
-      new AdminContext(admin).ensureTableAndColumnFamilyExists(family, table);
+      new AdminContext(admin).ensureTableAndColumnFamilyExists(family, table, splitKeys);
     }
   }
 
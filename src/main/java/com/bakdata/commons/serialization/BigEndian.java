@@ -0,0 +1,46 @@
+package com.bakdata.commons.serialization;
+
+/**
+ * Reads and writes primitives in big-endian byte order, i.e., the order used by {@link
+ * java.nio.ByteBuffer} by default, without allocating a buffer.
+ */
+final class BigEndian {
+
+  private BigEndian() {
+  }
+
+  static int getInt(byte[] buf, int offset) {
+    return buf[offset] << 24
+        | (buf[offset + 1] & 0xFF) << 16
+        | (buf[offset + 2] & 0xFF) << 8
+        | buf[offset + 3] & 0xFF;
+  }
+
+  static long getLong(byte[] buf, int offset) {
+    return (long) getInt(buf, offset) << 32 | getInt(buf, offset + 4) & 0xFFFFFFFFL;
+  }
+
+  static short getShort(byte[] buf, int offset) {
+    return (short) (buf[offset] << 8 | buf[offset + 1] & 0xFF);
+  }
+
+  static int putInt(byte[] buf, int offset, int value) {
+    buf[offset] = (byte) (value >>> 24);
+    buf[offset + 1] = (byte) (value >>> 16);
+    buf[offset + 2] = (byte) (value >>> 8);
+    buf[offset + 3] = (byte) value;
+    return Integer.BYTES;
+  }
+
+  static int putLong(byte[] buf, int offset, long value) {
+    putInt(buf, offset, (int) (value >>> 32));
+    putInt(buf, offset + 4, (int) value);
+    return Long.BYTES;
+  }
+
+  static int putShort(byte[] buf, int offset, short value) {
+    buf[offset] = (byte) (value >>> 8);
+    buf[offset + 1] = (byte) value;
+    return Short.BYTES;
+  }
+}
@@ -1,19 +1,35 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
-
 public enum BooleanSerializer implements Serializer<Boolean> {
 
   INSTANCE;
 
   @Override
   public Boolean deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).get() == 1;
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Boolean deserialize(byte[] buf, int offset, int length) {
+    return buf[offset] == 1;
   }
 
   @Override
   public byte[] serialize(Boolean t) {
-    return ByteBuffer.allocate(Byte.BYTES).put((byte) (t ? 1 : 0)).array();
+    byte[] bytes = new byte[Byte.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Boolean t, byte[] buf, int offset) {
+    buf[offset] = (byte) (t ? 1 : 0);
+    return Byte.BYTES;
+  }
+
+  @Override
+  public int serializedSize(Boolean t) {
+    return Byte.BYTES;
   }
 
 }
@@ -25,4 +25,9 @@ public class ByteArraySerializer implements Serializer<byte[]> {
   public byte[] serialize(byte[] bytes) throws SerializationException {
     return bytes;
   }
+
+  @Override
+  public int serializedSize(byte[] bytes) {
+    return bytes.length;
+  }
 }
@@ -1,19 +1,35 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
-
 public enum ByteSerializer implements Serializer<Byte> {
 
   INSTANCE;
 
   @Override
   public Byte deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).get();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Byte deserialize(byte[] buf, int offset, int length) {
+    return buf[offset];
   }
 
   @Override
   public byte[] serialize(Byte t) {
-    return ByteBuffer.allocate(Byte.BYTES).put(t).array();
+    byte[] bytes = new byte[Byte.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Byte t, byte[] buf, int offset) {
+    buf[offset] = t;
+    return Byte.BYTES;
+  }
+
+  @Override
+  public int serializedSize(Byte t) {
+    return Byte.BYTES;
   }
 
 }
@@ -1,6 +1,5 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public final class CharSerializer implements Serializer<Character> {
@@ -9,7 +8,12 @@ public final class CharSerializer implements Serializer<Character> {
 
   @Override
   public Character deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).getChar();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Character deserialize(byte[] buf, int offset, int length) {
+    return (char) BigEndian.getShort(buf, offset);
   }
 
   @Override
@@ -24,7 +28,19 @@ public final class CharSerializer implements Serializer<Character> {
 
   @Override
   public byte[] serialize(Character t) {
-    return ByteBuffer.allocate(Character.BYTES).putChar(t).array();
+    byte[] bytes = new byte[Character.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Character t, byte[] buf, int offset) {
+    return BigEndian.putShort(buf, offset, (short) t.charValue());
+  }
+
+  @Override
+  public int serializedSize(Character t) {
+    return Character.BYTES;
   }
 
 }
@@ -0,0 +1,189 @@
+package com.bakdata.commons.serialization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Serializes tuples of values, e.g., composite keys, as the concatenation of their components.
+ * Each component is serialized by its own serializer. If the serializers of all components are
+ * order-preserving, e.g., {@link OrderedLongSerializer} or {@link StringSerializer}, so is the
+ * composite serializer, hence rows sort by the first component, then by the second, and so on.</p>
+ *
+ * <p>All but the last component are terminated by two zero bytes. Zero bytes within these
+ * components are escaped as a zero byte followed by {@code 0xFF}, which keeps shorter components
+ * sorting before longer components starting with them.</p>
+ *
+ * <p>Tuples with fewer components than serializers are serialized to the common prefix of all
+ * tuples starting with these components, e.g., to scan them by prefix.</p>
+ *
+ * <p>Tuples are deserialized as {@link ArrayList}. Ignite compares keys by their binary
+ * representation, hence keys of a cache must be {@link ArrayList} as well.</p>
+ */
+public final class CompositeSerializer implements Serializer<List<Object>> {
+
+  private static final long serialVersionUID = -6180932612637432047L;
+  private static final byte ESCAPE = 0;
+  private static final byte ESCAPED_ZERO = (byte) 0xFF;
+  private static final byte TERMINATOR = 0;
+  // not final due to serialization
+  private List<Serializer<?>> components = new ArrayList<>();
+
+  public CompositeSerializer() {
+  }
+
+  /**
+   * @param components serializers of the components in the order of the components
+   */
+  public CompositeSerializer(List<Serializer<?>> components) {
+    this.components = new ArrayList<>(components);
+  }
+
+  /**
+   * @param components serializers of the components in the order of the components
+   */
+  public CompositeSerializer(Serializer<?>... components) {
+    this(Arrays.asList(components));
+  }
+
+  private static int countZeros(byte[] bytes) {
+    int zeros = 0;
+    for (byte b : bytes) {
+      if (b == 0) {
+        zeros++;
+      }
+    }
+    return zeros;
+  }
+
+  private static byte[] unescape(byte[] buf, int offset, int length, int zeros) {
+    byte[] bytes = new byte[length - zeros];
+    for (int i = offset, j = 0; i < offset + length; i++, j++) {
+      bytes[j] = buf[i];
+      if (buf[i] == ESCAPE) {
+        // skip escaped zero
+        i++;
+      }
+    }
+    return bytes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Serializer<Object> cast(Serializer<T> serializer) {
+    return (Serializer<Object>) serializer;
+  }
+
+  @Override
+  public List<Object> deserialize(byte[] bytes) throws SerializationException {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public List<Object> deserialize(byte[] buf, int offset, int length)
+      throws SerializationException {
+    List<Object> tuple = new ArrayList<>(components.size());
+    int end = offset + length;
+    int pos = offset;
+    for (int c = 0; c < components.size() - 1; c++) {
+      Serializer<Object> component = cast(components.get(c));
+      int zeros = 0;
+      int i = pos;
+      // find terminator
+      while (true) {
+        if (i + 1 >= end) {
+          throw new SerializationException("Component " + c + " is not terminated");
+        }
+        if (buf[i] == ESCAPE) {
+          if (buf[i + 1] == TERMINATOR) {
+            break;
+          }
+          if (buf[i + 1] != ESCAPED_ZERO) {
+            throw new SerializationException("Invalid escape in component " + c);
+          }
+          zeros++;
+          i += 2;
+        } else {
+          i++;
+        }
+      }
+      int componentLength = i - pos;
+      if (zeros == 0) {
+        tuple.add(component.deserialize(buf, pos, componentLength));
+      } else {
+        tuple.add(component.deserialize(unescape(buf, pos, componentLength, zeros)));
+      }
+      pos = i + 2;
+    }
+    if (!components.isEmpty()) {
+      Serializer<Object> last = cast(components.get(components.size() - 1));
+      tuple.add(last.deserialize(buf, pos, end - pos));
+    }
+    return tuple;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+    return components.equals(((CompositeSerializer) obj).components);
+  }
+
+  public List<Serializer<?>> getComponents() {
+    return components;
+  }
+
+  @Override
+  public int hashCode() {
+    return components.hashCode();
+  }
+
+  @Override
+  public byte[] serialize(List<Object> t) throws SerializationException {
+    if (t.size() > components.size()) {
+      throw new SerializationException(
+          "Expected at most " + components.size() + " components but got " + t.size());
+    }
+    int last = components.size() - 1;
+    byte[][] serialized = new byte[t.size()][];
+    int length = 0;
+    for (int c = 0; c < serialized.length; c++) {
+      serialized[c] = cast(components.get(c)).serialize(t.get(c));
+      length += serialized[c].length;
+      if (c < last) {
+        length += countZeros(serialized[c]) + 2;
+      }
+    }
+    byte[] bytes = new byte[length];
+    int pos = 0;
+    for (int c = 0; c < serialized.length; c++) {
+      byte[] component = serialized[c];
+      if (c == last) {
+        System.arraycopy(component, 0, bytes, pos, component.length);
+        break;
+      }
+      for (byte b : component) {
+        bytes[pos++] = b;
+        if (b == 0) {
+          bytes[pos++] = ESCAPED_ZERO;
+        }
+      }
+      bytes[pos++] = ESCAPE;
+      bytes[pos++] = TERMINATOR;
+    }
+    return bytes;
+  }
+
+  /**
+   * Set serializers of the components. Changing the components changes the layout of serialized
+   * tuples.
+   *
+   * @param components serializers in the order of the components
+   */
+  public void setComponents(List<Serializer<?>> components) {
+    this.components = new ArrayList<>(components);
+  }
+}
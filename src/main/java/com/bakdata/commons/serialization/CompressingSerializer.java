@@ -0,0 +1,161 @@
+package com.bakdata.commons.serialization;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>Compresses values serialized by another serializer. Values smaller than a threshold and values
+ * not getting smaller are stored raw.</p>
+ *
+ * <p>Each value starts with a header byte identifying the codec it has been compressed with, or
+ * that it is raw. Hence, raw and compressed values can be stored side by side and the codec can be
+ * changed without rewriting existing values. Values written without this serializer cannot be
+ * read.</p>
+ *
+ * @param <T> Class which can be serialized and deserialized by the wrapped serializer
+ */
+public final class CompressingSerializer<T> implements Serializer<T> {
+
+  private static final long serialVersionUID = 8294217409625733510L;
+  private static final int DEFAULT_THRESHOLD = 1024;
+  private static final byte RAW = 0;
+  // header byte and length of uncompressed value
+  private static final int COMPRESSED_HEADER_LENGTH = 1 + Integer.BYTES;
+  // not final due to serialization
+  private Serializer<T> delegate;
+  private CompressionCodec codec = CompressionCodec.LZ4;
+  private int threshold = DEFAULT_THRESHOLD;
+
+  public CompressingSerializer() {
+  }
+
+  /**
+   * @param delegate serializer whose output is compressed
+   */
+  public CompressingSerializer(Serializer<T> delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * @param delegate serializer whose output is compressed
+   * @param codec codec to compress with
+   * @param threshold minimum size in bytes of serialized values to be compressed
+   */
+  public CompressingSerializer(Serializer<T> delegate, CompressionCodec codec, int threshold) {
+    this.delegate = delegate;
+    this.codec = codec;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public T deserialize(byte[] bytes) throws SerializationException {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public T deserialize(byte[] buf, int offset, int length) throws SerializationException {
+    if (length < 1) {
+      throw new SerializationException("Missing compression header");
+    }
+    byte header = buf[offset];
+    if (header == RAW) {
+      return delegate.deserialize(buf, offset + 1, length - 1);
+    }
+    CompressionCodec valueCodec = CompressionCodec.forId(header);
+    if (length < COMPRESSED_HEADER_LENGTH) {
+      throw new SerializationException("Compressed value is truncated");
+    }
+    int uncompressedLength = BigEndian.getInt(buf, offset + 1);
+    if (uncompressedLength < 0) {
+      throw new SerializationException("Invalid length " + uncompressedLength);
+    }
+    byte[] uncompressed = new byte[uncompressedLength];
+    valueCodec.decompress(buf, offset + COMPRESSED_HEADER_LENGTH,
+        length - COMPRESSED_HEADER_LENGTH, uncompressed);
+    return delegate.deserialize(uncompressed);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+    CompressingSerializer<?> other = (CompressingSerializer<?>) obj;
+    return threshold == other.threshold && codec == other.codec
+        && Objects.equals(delegate, other.delegate);
+  }
+
+  public CompressionCodec getCodec() {
+    return codec;
+  }
+
+  public Serializer<T> getDelegate() {
+    return delegate;
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(delegate, codec, threshold);
+  }
+
+  @Override
+  public byte[] serialize(T t) throws SerializationException {
+    int size = delegate.serializedSize(t);
+    if (size != UNKNOWN_SIZE && size < threshold) {
+      // avoid copying small values
+      byte[] bytes = new byte[1 + size];
+      delegate.serialize(t, bytes, 1);
+      return bytes;
+    }
+    byte[] raw = delegate.serialize(t);
+    if (raw.length >= threshold) {
+      // compressed value must be smaller than the raw value including its header
+      byte[] compressed = new byte[1 + raw.length];
+      int length = codec.compress(raw, compressed, COMPRESSED_HEADER_LENGTH);
+      if (length >= 0) {
+        compressed[0] = codec.id();
+        BigEndian.putInt(compressed, 1, raw.length);
+        return Arrays.copyOf(compressed, COMPRESSED_HEADER_LENGTH + length);
+      }
+    }
+    byte[] bytes = new byte[1 + raw.length];
+    System.arraycopy(raw, 0, bytes, 1, raw.length);
+    return bytes;
+  }
+
+  /**
+   * Set codec to compress values with. Values compressed with other codecs can still be read.
+   * Defaults to {@link CompressionCodec#LZ4}.
+   *
+   * @param codec codec to use
+   */
+  public void setCodec(CompressionCodec codec) {
+    this.codec = codec;
+  }
+
+  /**
+   * Set serializer whose output is compressed
+   *
+   * @param delegate serializer to wrap
+   */
+  public void setDelegate(Serializer<T> delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Set minimum size in bytes of serialized values to be compressed. Smaller values are stored raw
+   * as compressing them rarely pays off. Defaults to {@value #DEFAULT_THRESHOLD}.
+   *
+   * @param threshold number of bytes
+   */
+  public void setThreshold(int threshold) {
+    this.threshold = threshold;
+  }
+}
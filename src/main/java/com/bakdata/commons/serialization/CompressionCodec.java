@@ -0,0 +1,119 @@
+package com.bakdata.commons.serialization;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Compression codecs supported by {@link CompressingSerializer}. Each codec is identified by the
+ * header byte of compressed values, which must therefore never change.
+ */
+public enum CompressionCodec {
+
+  /**
+   * Fast compression with moderate ratio. Uses native code if available.
+   */
+  LZ4((byte) 1) {
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    // does not read beyond the compressed bytes if a value is corrupt
+    private final LZ4SafeDecompressor decompressor =
+        LZ4Factory.fastestInstance().safeDecompressor();
+
+    @Override
+    int compress(byte[] src, byte[] dest, int offset) {
+      try {
+        return compressor.compress(src, 0, src.length, dest, offset, dest.length - offset);
+      } catch (LZ4Exception e) {
+        // does not fit the destination
+        return -1;
+      }
+    }
+
+    @Override
+    void decompress(byte[] src, int offset, int length, byte[] dest)
+        throws SerializationException {
+      try {
+        if (decompressor.decompress(src, offset, length, dest, 0) != dest.length) {
+          throw new SerializationException("Compressed value is truncated");
+        }
+      } catch (LZ4Exception e) {
+        throw new SerializationException(e);
+      }
+    }
+  },
+
+  /**
+   * Slower compression with better ratio than {@link #LZ4}. Part of the JDK.
+   */
+  DEFLATE((byte) 2) {
+    @Override
+    int compress(byte[] src, byte[] dest, int offset) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+        deflater.setInput(src);
+        deflater.finish();
+        int length = deflater.deflate(dest, offset, dest.length - offset);
+        // does not fit the destination if not finished
+        return deflater.finished() ? length : -1;
+      } finally {
+        deflater.end();
+      }
+    }
+
+    @Override
+    void decompress(byte[] src, int offset, int length, byte[] dest)
+        throws SerializationException {
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(src, offset, length);
+        if (inflater.inflate(dest) != dest.length) {
+          throw new SerializationException("Compressed value is truncated");
+        }
+      } catch (DataFormatException e) {
+        throw new SerializationException(e);
+      } finally {
+        inflater.end();
+      }
+    }
+  };
+
+  private final byte id;
+
+  CompressionCodec(byte id) {
+    this.id = id;
+  }
+
+  static CompressionCodec forId(byte id) throws SerializationException {
+    for (CompressionCodec codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    throw new SerializationException("Unknown compression codec " + id);
+  }
+
+  byte id() {
+    return id;
+  }
+
+  /**
+   * @param src bytes to compress
+   * @param dest buffer to write compressed bytes to
+   * @param offset position in {@code dest} to write the first byte to
+   * @return number of bytes written or -1 if the compressed bytes do not fit the remaining buffer
+   */
+  abstract int compress(byte[] src, byte[] dest, int offset);
+
+  /**
+   * @param src buffer containing compressed bytes
+   * @param offset position of first compressed byte
+   * @param length number of compressed bytes
+   * @param dest buffer of the size of the uncompressed bytes
+   */
+  abstract void decompress(byte[] src, int offset, int length, byte[] dest)
+      throws SerializationException;
+}
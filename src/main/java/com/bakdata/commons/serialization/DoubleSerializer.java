@@ -1,19 +1,34 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
-
 public enum DoubleSerializer implements Serializer<Double> {
 
   INSTANCE;
 
   @Override
   public Double deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).getDouble();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Double deserialize(byte[] buf, int offset, int length) {
+    return Double.longBitsToDouble(BigEndian.getLong(buf, offset));
   }
 
   @Override
   public byte[] serialize(Double t) {
-    return ByteBuffer.allocate(Double.BYTES).putDouble(t).array();
+    byte[] bytes = new byte[Double.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Double t, byte[] buf, int offset) {
+    return BigEndian.putLong(buf, offset, Double.doubleToRawLongBits(t));
+  }
+
+  @Override
+  public int serializedSize(Double t) {
+    return Double.BYTES;
   }
 
 }
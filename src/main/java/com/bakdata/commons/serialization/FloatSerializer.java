@@ -1,6 +1,5 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public final class FloatSerializer implements Serializer<Float> {
@@ -9,7 +8,12 @@ public final class FloatSerializer implements Serializer<Float> {
 
   @Override
   public Float deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).getFloat();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Float deserialize(byte[] buf, int offset, int length) {
+    return Float.intBitsToFloat(BigEndian.getInt(buf, offset));
   }
 
   @Override
@@ -24,7 +28,19 @@ public final class FloatSerializer implements Serializer<Float> {
 
   @Override
   public byte[] serialize(Float t) {
-    return ByteBuffer.allocate(Float.BYTES).putFloat(t).array();
+    byte[] bytes = new byte[Float.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Float t, byte[] buf, int offset) {
+    return BigEndian.putInt(buf, offset, Float.floatToRawIntBits(t));
+  }
+
+  @Override
+  public int serializedSize(Float t) {
+    return Float.BYTES;
   }
 
 }
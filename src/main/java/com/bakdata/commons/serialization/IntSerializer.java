@@ -1,19 +1,34 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
-
 public enum IntSerializer implements Serializer<Integer> {
 
   INSTANCE;
 
   @Override
   public Integer deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).getInt();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Integer deserialize(byte[] buf, int offset, int length) {
+    return BigEndian.getInt(buf, offset);
   }
 
   @Override
   public byte[] serialize(Integer t) {
-    return ByteBuffer.allocate(Integer.BYTES).putInt(t).array();
+    byte[] bytes = new byte[Integer.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Integer t, byte[] buf, int offset) {
+    return BigEndian.putInt(buf, offset, t);
+  }
+
+  @Override
+  public int serializedSize(Integer t) {
+    return Integer.BYTES;
   }
 
 }
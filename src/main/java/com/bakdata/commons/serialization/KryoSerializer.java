@@ -0,0 +1,153 @@
+package com.bakdata.commons.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+/**
+ * <p>Serializes arbitrary objects using the compact binary encoding of <a
+ * href="https://github.com/EsotericSoftware/kryo">Kryo</a>. The result is usually a fraction of
+ * the size produced by {@link ObjectSerializer}, which has to write full class descriptors.</p>
+ *
+ * <p>Registered classes are written as a small integer ID instead of their fully qualified name.
+ * IDs are assigned in the order of registration, so the list of registered classes may only be
+ * extended at its end once data has been written. Unregistered classes are still supported unless
+ * registration is required.</p>
+ */
+public final class KryoSerializer implements Serializer<Object> {
+
+  private static final long serialVersionUID = 2183164920624387751L;
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final byte[] EMPTY_BUFFER = new byte[0];
+  // not final due to serialization
+  private List<Class<?>> registeredClasses = new ArrayList<>();
+  private boolean registrationRequired = false;
+  private transient ThreadLocal<KryoContext> contexts =
+      ThreadLocal.withInitial(this::createContext);
+
+  public KryoSerializer() {
+  }
+
+  /**
+   * @param registeredClasses classes to register in the given order
+   */
+  public KryoSerializer(List<Class<?>> registeredClasses) {
+    this.registeredClasses = new ArrayList<>(registeredClasses);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    contexts = ThreadLocal.withInitial(this::createContext);
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Object deserialize(byte[] buf, int offset, int length) throws SerializationException {
+    KryoContext context = contexts.get();
+    context.input.setBuffer(buf, offset, length);
+    try {
+      return context.kryo.readClassAndObject(context.input);
+    } catch (KryoException e) {
+      throw new SerializationException(e);
+    } finally {
+      // do not retain the buffer, it is usually the backing array of an HBase result
+      context.input.setBuffer(EMPTY_BUFFER);
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+    KryoSerializer other = (KryoSerializer) obj;
+    return registrationRequired == other.registrationRequired
+        && registeredClasses.equals(other.registeredClasses);
+  }
+
+  public List<Class<?>> getRegisteredClasses() {
+    return registeredClasses;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(registeredClasses, registrationRequired);
+  }
+
+  public boolean isRegistrationRequired() {
+    return registrationRequired;
+  }
+
+  @Override
+  public byte[] serialize(Object t) throws SerializationException {
+    KryoContext context = contexts.get();
+    context.output.clear();
+    try {
+      context.kryo.writeClassAndObject(context.output, t);
+      return context.output.toBytes();
+    } catch (KryoException e) {
+      throw new SerializationException(e);
+    }
+  }
+
+  /**
+   * Set the classes to register. IDs are assigned in the given order, hence the order must not
+   * change once data has been written.
+   *
+   * @param registeredClasses classes to register
+   */
+  public void setRegisteredClasses(List<Class<?>> registeredClasses) {
+    this.registeredClasses = new ArrayList<>(registeredClasses);
+    contexts = ThreadLocal.withInitial(this::createContext);
+  }
+
+  /**
+   * Set whether serializing unregistered classes fails. Otherwise, their fully qualified name is
+   * written. Default is false.
+   *
+   * @param registrationRequired whether classes must be registered
+   */
+  public void setRegistrationRequired(boolean registrationRequired) {
+    this.registrationRequired = registrationRequired;
+    contexts = ThreadLocal.withInitial(this::createContext);
+  }
+
+  private KryoContext createContext() {
+    Kryo kryo = new Kryo();
+    // support classes without no-arg constructor like ObjectSerializer does
+    kryo.setInstantiatorStrategy(
+        new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+    kryo.setRegistrationRequired(registrationRequired);
+    registeredClasses.forEach(kryo::register);
+    return new KryoContext(kryo);
+  }
+
+  /**
+   * Kryo instances and buffers are not thread-safe, hence each thread uses its own.
+   */
+  private static final class KryoContext {
+
+    private final Kryo kryo;
+    private final Input input = new Input();
+    // grows as needed
+    private final Output output = new Output(INITIAL_BUFFER_SIZE, -1);
+
+    private KryoContext(Kryo kryo) {
+      this.kryo = kryo;
+    }
+  }
+}
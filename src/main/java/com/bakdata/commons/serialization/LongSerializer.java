@@ -1,19 +1,34 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
-
 public enum LongSerializer implements Serializer<Long> {
 
   INSTANCE;
 
   @Override
   public Long deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).getLong();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Long deserialize(byte[] buf, int offset, int length) {
+    return BigEndian.getLong(buf, offset);
   }
 
   @Override
   public byte[] serialize(Long t) {
-    return ByteBuffer.allocate(Long.BYTES).putLong(t).array();
+    byte[] bytes = new byte[Long.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Long t, byte[] buf, int offset) {
+    return BigEndian.putLong(buf, offset, t);
+  }
+
+  @Override
+  public int serializedSize(Long t) {
+    return Long.BYTES;
   }
 
 }
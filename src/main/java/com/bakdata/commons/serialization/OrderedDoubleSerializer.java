@@ -0,0 +1,45 @@
+package com.bakdata.commons.serialization;
+
+/**
+ * Serializes doubles such that their byte representations sort like the doubles. Unlike {@link
+ * DoubleSerializer}, the sign bit of positive numbers and all bits of negative numbers are flipped
+ * so that negative numbers sort before positive numbers and by their magnitude. {@code -0.0} sorts
+ * before {@code 0.0} and {@code NaN} sorts last. Use for keys of range scans.
+ */
+public enum OrderedDoubleSerializer implements Serializer<Double> {
+
+  INSTANCE;
+
+  @Override
+  public Double deserialize(byte[] bytes) {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Double deserialize(byte[] buf, int offset, int length) {
+    long encoded = BigEndian.getLong(buf, offset);
+    // encoded positive numbers have their sign bit set
+    long bits = encoded < 0L ? encoded ^ Long.MIN_VALUE : ~encoded;
+    return Double.longBitsToDouble(bits);
+  }
+
+  @Override
+  public byte[] serialize(Double t) {
+    byte[] bytes = new byte[Double.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Double t, byte[] buf, int offset) {
+    // canonical NaN
+    long bits = Double.doubleToLongBits(t);
+    return BigEndian.putLong(buf, offset, bits < 0L ? ~bits : bits ^ Long.MIN_VALUE);
+  }
+
+  @Override
+  public int serializedSize(Double t) {
+    return Double.BYTES;
+  }
+
+}
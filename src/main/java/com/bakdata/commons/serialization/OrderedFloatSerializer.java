@@ -0,0 +1,45 @@
+package com.bakdata.commons.serialization;
+
+/**
+ * Serializes floats such that their byte representations sort like the floats. Unlike {@link
+ * FloatSerializer}, the sign bit of positive numbers and all bits of negative numbers are flipped
+ * so that negative numbers sort before positive numbers and by their magnitude. {@code -0.0} sorts
+ * before {@code 0.0} and {@code NaN} sorts last. Use for keys of range scans.
+ */
+public enum OrderedFloatSerializer implements Serializer<Float> {
+
+  INSTANCE;
+
+  @Override
+  public Float deserialize(byte[] bytes) {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Float deserialize(byte[] buf, int offset, int length) {
+    int encoded = BigEndian.getInt(buf, offset);
+    // encoded positive numbers have their sign bit set
+    int bits = encoded < 0 ? encoded ^ Integer.MIN_VALUE : ~encoded;
+    return Float.intBitsToFloat(bits);
+  }
+
+  @Override
+  public byte[] serialize(Float t) {
+    byte[] bytes = new byte[Float.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Float t, byte[] buf, int offset) {
+    // canonical NaN
+    int bits = Float.floatToIntBits(t);
+    return BigEndian.putInt(buf, offset, bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE);
+  }
+
+  @Override
+  public int serializedSize(Float t) {
+    return Float.BYTES;
+  }
+
+}
@@ -0,0 +1,39 @@
+package com.bakdata.commons.serialization;
+
+/**
+ * Serializes integers such that their byte representations sort like the integers. Unlike {@link
+ * IntSerializer}, the sign bit is flipped so that negative numbers sort before positive numbers.
+ * Use for keys of range scans.
+ */
+public enum OrderedIntSerializer implements Serializer<Integer> {
+
+  INSTANCE;
+
+  @Override
+  public Integer deserialize(byte[] bytes) {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Integer deserialize(byte[] buf, int offset, int length) {
+    return BigEndian.getInt(buf, offset) ^ Integer.MIN_VALUE;
+  }
+
+  @Override
+  public byte[] serialize(Integer t) {
+    byte[] bytes = new byte[Integer.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Integer t, byte[] buf, int offset) {
+    return BigEndian.putInt(buf, offset, t ^ Integer.MIN_VALUE);
+  }
+
+  @Override
+  public int serializedSize(Integer t) {
+    return Integer.BYTES;
+  }
+
+}
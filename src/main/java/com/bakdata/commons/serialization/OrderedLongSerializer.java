@@ -0,0 +1,39 @@
+package com.bakdata.commons.serialization;
+
+/**
+ * Serializes longs such that their byte representations sort like the longs. Unlike {@link
+ * LongSerializer}, the sign bit is flipped so that negative numbers sort before positive numbers.
+ * Use for keys of range scans.
+ */
+public enum OrderedLongSerializer implements Serializer<Long> {
+
+  INSTANCE;
+
+  @Override
+  public Long deserialize(byte[] bytes) {
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Long deserialize(byte[] buf, int offset, int length) {
+    return BigEndian.getLong(buf, offset) ^ Long.MIN_VALUE;
+  }
+
+  @Override
+  public byte[] serialize(Long t) {
+    byte[] bytes = new byte[Long.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Long t, byte[] buf, int offset) {
+    return BigEndian.putLong(buf, offset, t ^ Long.MIN_VALUE);
+  }
+
+  @Override
+  public int serializedSize(Long t) {
+    return Long.BYTES;
+  }
+
+}
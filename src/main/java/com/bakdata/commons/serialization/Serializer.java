@@ -1,17 +1,28 @@
 package com.bakdata.commons.serialization;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * <p> Interface to take care of serializing and deserializing objects of class {@code T} from and
  * to {@code byte[]}. </p>
  *
+ * <p>Serializers may additionally read from and write to a range of a larger buffer, e.g., the
+ * backing array of an HBase cell, to avoid copying. The default implementations of these methods
+ * copy.</p>
+ *
  * <p>It is recommended to implement the {@code equals()} method.</p>
  *
  * @param <T> Class which can be serialized and deserialized by this class
  */
 public interface Serializer<T> extends Serializable {
 
+  /**
+   * Size returned by {@link #serializedSize(Object)} if the size cannot be determined without
+   * serializing.
+   */
+  int UNKNOWN_SIZE = -1;
+
   /**
    * Deserializes an object of class {@code T} from a {@code byte[]}
    *
@@ -21,6 +32,22 @@ public interface Serializer<T> extends Serializable {
    */
   T deserialize(byte[] bytes) throws SerializationException;
 
+  /**
+   * Deserializes an object of class {@code T} from a range of a {@code byte[]}
+   *
+   * @param buf buffer containing raw bytes representing an object of class {@code T}
+   * @param offset position of the first byte in {@code buf}
+   * @param length number of bytes representing the object
+   * @return deserialized object
+   * @throws SerializationException if deserialization fails
+   */
+  default T deserialize(byte[] buf, int offset, int length) throws SerializationException {
+    if (offset == 0 && length == buf.length) {
+      return deserialize(buf);
+    }
+    return deserialize(Arrays.copyOfRange(buf, offset, offset + length));
+  }
+
   /**
    * Serialize an object of class {@code T} to a {@code byte[]}
    *
@@ -30,4 +57,31 @@ public interface Serializer<T> extends Serializable {
    */
   byte[] serialize(T t) throws SerializationException;
 
+  /**
+   * Serialize an object of class {@code T} to a range of a {@code byte[]}. The buffer must have at
+   * least {@link #serializedSize(Object)} bytes left after {@code offset}.
+   *
+   * @param t object of class {@code T} to be serialized
+   * @param buf buffer to write raw bytes representing {@code t} to
+   * @param offset position in {@code buf} to write the first byte to
+   * @return number of bytes written
+   * @throws SerializationException if serialization fails
+   */
+  default int serialize(T t, byte[] buf, int offset) throws SerializationException {
+    byte[] bytes = serialize(t);
+    System.arraycopy(bytes, 0, buf, offset, bytes.length);
+    return bytes.length;
+  }
+
+  /**
+   * Compute the number of bytes {@code t} is serialized to
+   *
+   * @param t object of class {@code T} to be serialized
+   * @return number of bytes or {@link #UNKNOWN_SIZE} if it cannot be determined without
+   * serializing
+   */
+  default int serializedSize(T t) {
+    return UNKNOWN_SIZE;
+  }
+
 }
@@ -1,19 +1,34 @@
 package com.bakdata.commons.serialization;
 
-import java.nio.ByteBuffer;
-
 public enum ShortSerializer implements Serializer<Short> {
 
   INSTANCE;
 
   @Override
   public Short deserialize(byte[] bytes) {
-    return ByteBuffer.wrap(bytes).getShort();
+    return deserialize(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public Short deserialize(byte[] buf, int offset, int length) {
+    return BigEndian.getShort(buf, offset);
   }
 
   @Override
   public byte[] serialize(Short t) {
-    return ByteBuffer.allocate(Short.BYTES).putShort(t).array();
+    byte[] bytes = new byte[Short.BYTES];
+    serialize(t, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int serialize(Short t, byte[] buf, int offset) {
+    return BigEndian.putShort(buf, offset, t);
+  }
+
+  @Override
+  public int serializedSize(Short t) {
+    return Short.BYTES;
   }
 
 }
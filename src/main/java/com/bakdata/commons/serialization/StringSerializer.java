@@ -9,6 +9,11 @@ public enum StringSerializer implements Serializer<String> {
     return new String(bytes);
   }
 
+  @Override
+  public String deserialize(byte[] buf, int offset, int length) {
+    return new String(buf, offset, length);
+  }
+
   @Override
   public byte[] serialize(String t) {
     return t.getBytes();
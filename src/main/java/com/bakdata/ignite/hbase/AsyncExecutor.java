@@ -0,0 +1,111 @@
+package com.bakdata.ignite.hbase;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs HBase requests of an {@link HBaseCacheStore} on a bounded pool of I/O threads. Submitting
+ * blocks while the maximum number of requests is in flight, which pushes back on callers instead of
+ * queueing requests without bound. Without I/O threads, requests run on the submitting thread.
+ */
+final class AsyncExecutor implements Closeable {
+
+  private final ThreadPoolExecutor pool;
+  private final Semaphore permits;
+
+  /**
+   * @param threads number of I/O threads. If not positive, requests run on the submitting thread.
+   * @param maxInflight maximum number of requests in flight. If not positive, requests are not
+   * limited.
+   */
+  AsyncExecutor(int threads, int maxInflight) {
+    if (threads > 0) {
+      this.pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          new ThreadFactoryBuilder().setNameFormat("hbase-store-io-%d").setDaemon(true).build());
+      pool.allowCoreThreadTimeOut(true);
+    } else {
+      this.pool = null;
+    }
+    this.permits = maxInflight > 0 ? new Semaphore(maxInflight) : null;
+  }
+
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * @return whether requests run on the submitting thread
+   */
+  boolean isDirect() {
+    return pool == null;
+  }
+
+  /**
+   * Run a request asynchronously. Blocks while the maximum number of requests is in flight.
+   *
+   * @param request request to run
+   * @param <T> type of result
+   * @return future completed with the result of the request
+   * @throws InterruptedIOException if interrupted while waiting for a request to complete
+   */
+  <T> CompletableFuture<T> submit(Callable<T> request) throws InterruptedIOException {
+    acquire();
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Runnable task = () -> {
+      T result;
+      try {
+        result = request.call();
+      } catch (Exception e) {
+        release();
+        future.completeExceptionally(e);
+        return;
+      }
+      release();
+      future.complete(result);
+    };
+    if (pool == null) {
+      task.run();
+      return future;
+    }
+    try {
+      pool.execute(task);
+    } catch (RejectedExecutionException e) {
+      release();
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  private void acquire() throws InterruptedIOException {
+    if (permits == null) {
+      return;
+    }
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while waiting for HBase requests");
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  private void release() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.bakdata.ignite.hbase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Row;
+
+/**
+ * Splits batches of operations exceeding a maximum number of operations or bytes into sub-batches
+ * per region server. Each sub-batch only addresses a single region server and stays within both
+ * limits.
+ */
+final class BatchSplitter {
+
+  private final int maxSize;
+  private final long maxBytes;
+
+  /**
+   * @param maxSize maximum number of operations per batch. If not positive, batches are not split
+   * by number.
+   * @param maxBytes maximum number of bytes per batch. If not positive, batches are not split by
+   * bytes.
+   */
+  BatchSplitter(int maxSize, long maxBytes) {
+    this.maxSize = maxSize;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return rows of a batch
+   */
+  static <R> List<R> select(List<R> rows, List<Integer> batch) {
+    return batch.stream()
+        .map(rows::get)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @param rows operations of a batch
+   * @param size estimates the number of bytes of an operation
+   * @return whether the batch exceeds a limit and must be split
+   */
+  <R> boolean exceeds(List<R> rows, ToLongFunction<? super R> size) {
+    if (maxSize > 0 && rows.size() > maxSize) {
+      return true;
+    }
+    if (maxBytes <= 0L) {
+      return false;
+    }
+    long bytes = 0L;
+    for (R row : rows) {
+      bytes += size.applyAsLong(row);
+      if (bytes > maxBytes) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Split a batch by region server and limits.
+   *
+   * @param rows operations of the batch
+   * @param size estimates the number of bytes of an operation
+   * @param locator locator for the regions of the table the batch is sent to
+   * @return indices of the operations of each sub-batch
+   * @throws IOException if a region cannot be located
+   */
+  <R extends Row> List<List<Integer>> split(List<R> rows, ToLongFunction<? super R> size,
+      RegionLocator locator) throws IOException {
+    Map<ServerName, List<Integer>> byServer = new LinkedHashMap<>();
+    for (int i = 0; i < rows.size(); i++) {
+      // locations are cached by the connection
+      ServerName server = locator.getRegionLocation(rows.get(i).getRow()).getServerName();
+      byServer.computeIfAbsent(server, s -> new ArrayList<>()).add(i);
+    }
+    List<List<Integer>> batches = new ArrayList<>();
+    for (List<Integer> indices : byServer.values()) {
+      List<Integer> batch = new ArrayList<>();
+      long bytes = 0L;
+      for (int index : indices) {
+        long rowBytes = size.applyAsLong(rows.get(index));
+        if (!batch.isEmpty() && (maxSize > 0 && batch.size() >= maxSize
+            || maxBytes > 0L && bytes + rowBytes > maxBytes)) {
+          batches.add(batch);
+          batch = new ArrayList<>();
+          bytes = 0L;
+        }
+        batch.add(index);
+        bytes += rowBytes;
+      }
+      batches.add(batch);
+    }
+    return batches;
+  }
+}
@@ -0,0 +1,76 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.bakdata.commons.serialization.SerializationException;
+import com.bakdata.commons.serialization.Serializer;
+import java.util.Arrays;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.binary.BinaryObjectException;
+import org.apache.ignite.configuration.BinaryConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.binary.BinaryObjectImpl;
+import org.apache.ignite.internal.binary.GridBinaryMarshaller;
+import org.apache.ignite.internal.processors.cache.binary.CacheObjectBinaryProcessorImpl;
+import org.apache.ignite.internal.processors.cacheobject.IgniteCacheObjectProcessor;
+
+/**
+ * Serializes objects in the binary format of Ignite. Binary objects are written as is and read
+ * back as binary objects, i.e., objects are never converted from or to their classes if the cache
+ * passes binary objects to the store. Primitives and strings are read back as is.
+ *
+ * <p>Objects must be written without compact footer, so that they can be read by other clusters
+ * or after a restart. Bound to the binary context of a node and must therefore not be
+ * serialized.</p>
+ */
+final class BinaryObjectSerializer implements Serializer<Object> {
+
+  private static final long serialVersionUID = 4581519720338453418L;
+  private final transient GridBinaryMarshaller marshaller;
+
+  private BinaryObjectSerializer(GridBinaryMarshaller marshaller) {
+    this.marshaller = marshaller;
+  }
+
+  /**
+   * @param ignite local node, which must use the binary marshaller without compact footers
+   * @return serializer using the binary context of the node
+   */
+  static BinaryObjectSerializer create(Ignite ignite) {
+    IgniteCacheObjectProcessor processor = ((IgniteEx) ignite).context().cacheObjects();
+    checkState(processor instanceof CacheObjectBinaryProcessorImpl,
+        "Binary mode requires the binary marshaller");
+    // compact footers omit the schema, which is only known to the cluster that wrote the object
+    BinaryConfiguration config = ignite.configuration().getBinaryConfiguration();
+    checkState(config != null && !config.isCompactFooter(),
+        "Binary mode requires binary objects without compact footer");
+    return new BinaryObjectSerializer(((CacheObjectBinaryProcessorImpl) processor).marshaller());
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    try {
+      // binary objects reference the array, hence ranges are copied by the default implementation
+      return marshaller.unmarshal(bytes, null);
+    } catch (BinaryObjectException e) {
+      throw new SerializationException(e);
+    }
+  }
+
+  @Override
+  public byte[] serialize(Object t) throws SerializationException {
+    if (t instanceof BinaryObjectImpl) {
+      BinaryObjectImpl binary = (BinaryObjectImpl) t;
+      byte[] array = binary.array();
+      int start = binary.start();
+      int length = binary.length();
+      return start == 0 && length == array.length ? array
+          : Arrays.copyOfRange(array, start, start + length);
+    }
+    try {
+      return marshaller.marshal(t);
+    } catch (BinaryObjectException e) {
+      throw new SerializationException(e);
+    }
+  }
+}
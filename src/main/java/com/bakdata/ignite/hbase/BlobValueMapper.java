@@ -0,0 +1,50 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.bakdata.commons.serialization.SerializationException;
+import com.bakdata.commons.serialization.Serializer;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Stores the serialized value in a single column.
+ *
+ * @param <V> type of values stored in the cache
+ */
+final class BlobValueMapper<V> implements ValueMapper<V> {
+
+  private static final byte[] QUALIFIER = "value".getBytes();
+  private final Serializer<V> serializer;
+
+  BlobValueMapper(Serializer<V> serializer) {
+    this.serializer = serializer;
+  }
+
+  @Override
+  public List<byte[]> qualifiers(Projection projection) {
+    checkArgument(projection == null, "Projections require a field mapping");
+    return Collections.singletonList(QUALIFIER);
+  }
+
+  @Override
+  public void addValue(Put put, byte[] family, V value) throws SerializationException {
+    put.addColumn(family, QUALIFIER, serializer.serialize(value));
+  }
+
+  /**
+   * The value is read from the backing array of its cell without copying.
+   */
+  @Override
+  public V extractValue(Result result, byte[] family) throws SerializationException {
+    Cell cell = result.getColumnLatestCell(family, QUALIFIER);
+    if (cell == null) {
+      return null;
+    }
+    return serializer.deserialize(cell.getValueArray(), cell.getValueOffset(),
+        cell.getValueLength());
+  }
+}
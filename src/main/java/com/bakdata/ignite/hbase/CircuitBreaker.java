@@ -0,0 +1,144 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.apache.hadoop.hbase.DoNotRetryIOException;
+
+/**
+ * Circuit breaker guarding the requests of an {@link HBaseCacheStore} to a table. Requests and
+ * failures are counted in windows of fixed length. Once the failure rate of a window with enough
+ * requests reaches the threshold, the breaker opens and rejects all requests. After the open
+ * duration, a single trial request is let through: if it succeeds, the breaker closes, otherwise it
+ * opens again. Requests let through before still complete while the breaker is half-open, but only
+ * the outcome of the trial request decides its state.
+ */
+final class CircuitBreaker {
+
+  private final double failureRateThreshold;
+  private final int minimumRequests;
+  private final long window;
+  private final long openDuration;
+  private State state = State.CLOSED;
+  private long windowStart;
+  private int requests;
+  private int failures;
+  private long openedAt;
+  private boolean trialInProgress;
+
+  /**
+   * @param failureRateThreshold failure rate between 0 and 1 at which the breaker opens
+   * @param minimumRequests minimum number of requests in a window to open the breaker
+   * @param window length of a window in milliseconds
+   * @param openDuration time in milliseconds to reject requests before a trial request
+   */
+  CircuitBreaker(double failureRateThreshold, int minimumRequests, long window,
+      long openDuration) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.minimumRequests = minimumRequests;
+    this.window = window;
+    this.openDuration = openDuration;
+    this.windowStart = System.currentTimeMillis();
+  }
+
+  /**
+   * @return permit of a request. If not {@link Permit#DENIED denied}, the request may be sent and
+   * its outcome must be recorded with the permit.
+   */
+  synchronized Permit allowRequest() {
+    long now = System.currentTimeMillis();
+    switch (state) {
+      case CLOSED:
+        return Permit.REQUEST;
+      case OPEN:
+        if (now - openedAt < openDuration) {
+          return Permit.DENIED;
+        }
+        state = State.HALF_OPEN;
+        trialInProgress = true;
+        return Permit.TRIAL;
+      case HALF_OPEN:
+        if (trialInProgress) {
+          return Permit.DENIED;
+        }
+        trialInProgress = true;
+        return Permit.TRIAL;
+      default:
+        throw new IllegalStateException("Unknown state " + state);
+    }
+  }
+
+  synchronized void recordFailure(Permit permit) {
+    checkArgument(permit != Permit.DENIED, "Denied requests have no outcome");
+    if (permit == Permit.TRIAL) {
+      open(System.currentTimeMillis());
+    } else if (state != State.HALF_OPEN) {
+      count(true);
+    }
+  }
+
+  synchronized void recordSuccess(Permit permit) {
+    checkArgument(permit != Permit.DENIED, "Denied requests have no outcome");
+    if (permit == Permit.TRIAL) {
+      state = State.CLOSED;
+      trialInProgress = false;
+      resetWindow(System.currentTimeMillis());
+    } else if (state != State.HALF_OPEN) {
+      count(false);
+    }
+  }
+
+  synchronized State state() {
+    return state;
+  }
+
+  private void count(boolean failure) {
+    long now = System.currentTimeMillis();
+    if (now - windowStart >= window) {
+      resetWindow(now);
+    }
+    requests++;
+    if (failure) {
+      failures++;
+    }
+    if (state == State.CLOSED && requests >= minimumRequests
+        && failures >= failureRateThreshold * requests) {
+      open(now);
+    }
+  }
+
+  private void open(long now) {
+    state = State.OPEN;
+    openedAt = now;
+    trialInProgress = false;
+    resetWindow(now);
+  }
+
+  private void resetWindow(long now) {
+    windowStart = now;
+    requests = 0;
+    failures = 0;
+  }
+
+  enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  /**
+   * Permission to send a request, telling whether it is the trial request of a half-open breaker.
+   */
+  enum Permit {
+    DENIED, REQUEST, TRIAL
+  }
+
+  /**
+   * Thrown instead of sending a request while the breaker is open.
+   */
+  static final class OpenException extends DoNotRetryIOException {
+
+    private static final long serialVersionUID = 5235904436224390012L;
+
+    OpenException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,277 @@
+package com.bakdata.ignite.hbase;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffer keeping only the latest put or delete per row and cache, shared by all sessions of a
+ * {@link HBaseCacheStoreSessionListener}. Repeated updates of the same keys are thus sent to HBase
+ * once per flush. The buffer is flushed once it holds the maximum number of rows or bytes, or
+ * periodically after the maximum age elapsed.
+ *
+ * <p>Mutations failing to be sent are buffered again unless they have been replaced by newer ones
+ * in the meantime. They are thus retried by the next flush, which reports the failure to its caller
+ * if they fail again. Failures of periodic flushes are logged.</p>
+ *
+ * <p>Flushes are sent one after another so that a newer mutation of a row is never overtaken by an
+ * older one.</p>
+ */
+final class CoalescingBuffer implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(CoalescingBuffer.class);
+  private final ConcurrentMap<BufferKey, Mutation> mutations = new ConcurrentHashMap<>();
+  private final AtomicLong bytes = new AtomicLong();
+  private final Object flushLock = new Object();
+  private final Connection conn;
+  private final TableName tableName;
+  private final int maxSize;
+  private final long maxBytes;
+  private final ScheduledExecutorService flusher;
+  // whether drained mutations are being sent, only written while holding flushLock
+  private volatile boolean sending;
+
+  private CoalescingBuffer(Connection conn, TableName tableName, int maxSize, long maxBytes,
+      long maxAge) {
+    this.conn = conn;
+    this.tableName = tableName;
+    this.maxSize = maxSize;
+    this.maxBytes = maxBytes;
+    if (maxAge > 0L) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("hbase-coalescing-flush-%d").setDaemon(true)
+              .build());
+      flusher.scheduleWithFixedDelay(this::flushQuietly, maxAge, maxAge, TimeUnit.MILLISECONDS);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  /**
+   * @param conn HBase connection
+   * @param tableName table to write to
+   * @param maxSize maximum number of buffered rows. If not positive, the buffer is not flushed by
+   * number of rows.
+   * @param maxBytes maximum number of buffered bytes. If not positive, the buffer is not flushed by
+   * bytes.
+   * @param maxAge interval in milliseconds to flush the buffer periodically. If not positive, the
+   * buffer is not flushed periodically.
+   * @return new coalescing buffer
+   */
+  static CoalescingBuffer create(Connection conn, TableName tableName, int maxSize,
+      long maxBytes, long maxAge) {
+    return new CoalescingBuffer(conn, tableName, maxSize, maxBytes, maxAge);
+  }
+
+  private static BufferKey key(String cacheName, Row row) {
+    return new BufferKey(cacheName, ByteBuffer.wrap(row.getRow()));
+  }
+
+  /**
+   * @return rows that failed to be sent, or null if unknown
+   */
+  private static Set<ByteBuffer> failedRows(IOException e) {
+    if (!(e instanceof RetriesExhaustedWithDetailsException)) {
+      return null;
+    }
+    RetriesExhaustedWithDetailsException details = (RetriesExhaustedWithDetailsException) e;
+    Set<ByteBuffer> rows = new HashSet<>();
+    for (int i = 0; i < details.getNumExceptions(); i++) {
+      rows.add(ByteBuffer.wrap(details.getRow(i).getRow()));
+    }
+    return rows;
+  }
+
+  /**
+   * Stop flushing periodically, wait for a running periodic flush, and send all buffered mutations
+   * to HBase.
+   *
+   * @throws IOException if buffered mutations failed
+   */
+  @Override
+  public void close() throws IOException {
+    if (flusher != null) {
+      // interrupting a running flush would abort sending the mutations it drained
+      flusher.shutdown();
+      try {
+        flusher.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    flush();
+  }
+
+  /**
+   * Send all buffered mutations to HBase and wait for their completion.
+   *
+   * @throws IOException if buffered mutations failed
+   */
+  void flush() throws IOException {
+    synchronized (flushLock) {
+      drainAndSend(new ArrayList<>(mutations.keySet()));
+    }
+  }
+
+  /**
+   * Send buffered mutations of some rows to HBase, e.g., before loading them.
+   *
+   * @param cacheName cache the rows belong to
+   * @param rows rows to send
+   * @throws IOException if sending mutations failed
+   */
+  void flush(String cacheName, List<? extends Row> rows) throws IOException {
+    // a concurrent flush marks itself as sending before draining the buffer
+    if (mutations.isEmpty() && !sending) {
+      return;
+    }
+    // waits for rows drained by a concurrent flush but not yet sent
+    synchronized (flushLock) {
+      List<BufferKey> keys = new ArrayList<>(rows.size());
+      for (Row row : rows) {
+        BufferKey key = key(cacheName, row);
+        if (mutations.containsKey(key)) {
+          keys.add(key);
+        }
+      }
+      drainAndSend(keys);
+    }
+  }
+
+  /**
+   * Buffer mutations, replacing buffered mutations of the same rows. Flushes the buffer if it is
+   * full.
+   *
+   * @param cacheName cache the mutations belong to
+   * @param rows mutations to buffer
+   * @throws IOException if flushing failed
+   */
+  void mutate(String cacheName, List<? extends Mutation> rows) throws IOException {
+    for (Mutation mutation : rows) {
+      Mutation previous = mutations.put(key(cacheName, mutation), mutation);
+      bytes.addAndGet(mutation.heapSize() - (previous != null ? previous.heapSize() : 0L));
+    }
+    if (maxSize > 0 && mutations.size() >= maxSize || maxBytes > 0L && bytes.get() >= maxBytes) {
+      flush();
+    }
+  }
+
+  private Map<BufferKey, Mutation> drain(List<BufferKey> keys) {
+    Map<BufferKey, Mutation> drained = new LinkedHashMap<>();
+    for (BufferKey key : keys) {
+      Mutation mutation = mutations.remove(key);
+      if (mutation != null) {
+        bytes.addAndGet(-mutation.heapSize());
+        drained.put(key, mutation);
+      }
+    }
+    return drained;
+  }
+
+  private void drainAndSend(List<BufferKey> keys) throws IOException {
+    sending = true;
+    try {
+      Map<BufferKey, Mutation> drained = drain(keys);
+      try {
+        send(new ArrayList<>(drained.values()));
+      } catch (IOException e) {
+        restore(drained, failedRows(e));
+        throw e;
+      }
+    } finally {
+      sending = false;
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (IOException e) {
+      log.warn("Failed to flush coalesced mutations, retrying with the next flush", e);
+    }
+  }
+
+  /**
+   * Buffer drained mutations again unless newer mutations of the same rows have been buffered.
+   *
+   * @param drained mutations that were sent
+   * @param failedRows rows of the mutations that failed. If null, all mutations are restored.
+   */
+  private void restore(Map<BufferKey, Mutation> drained, Set<ByteBuffer> failedRows) {
+    for (Entry<BufferKey, Mutation> entry : drained.entrySet()) {
+      BufferKey key = entry.getKey();
+      Mutation mutation = entry.getValue();
+      if ((failedRows == null || failedRows.contains(key.row))
+          && mutations.putIfAbsent(key, mutation) == null) {
+        bytes.addAndGet(mutation.heapSize());
+      }
+    }
+  }
+
+  private void send(List<Mutation> drained) throws IOException {
+    if (drained.isEmpty()) {
+      return;
+    }
+    try (Table table = conn.getTable(tableName)) {
+      table.batch(drained, new Object[drained.size()]);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while flushing coalesced mutations");
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  private static final class BufferKey {
+
+    private final String cacheName;
+    private final ByteBuffer row;
+
+    private BufferKey(String cacheName, ByteBuffer row) {
+      this.cacheName = cacheName;
+      this.row = row;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BufferKey other = (BufferKey) o;
+      return cacheName.equals(other.cacheName) && row.equals(other.row);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(cacheName, row);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.bakdata.ignite.hbase;
+
+import java.io.Serializable;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.io.compress.Compression.Algorithm;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+
+/**
+ * <p>Settings of the column family created for a cache. Settings which are not set keep the HBase
+ * defaults.</p>
+ *
+ * <p>Settings only apply when the column family is created. Existing column families are not
+ * altered.</p>
+ */
+public class ColumnFamilySpec implements Serializable {
+
+  private static final long serialVersionUID = -1720943575329626470L;
+  // not final due to serialization
+  private DataBlockEncoding dataBlockEncoding;
+  private Algorithm compression;
+  private BloomType bloomFilterType;
+  private Integer blockSize;
+  private Boolean inMemory;
+  private Integer timeToLive;
+  private Integer maxVersions;
+
+  public Integer getBlockSize() {
+    return blockSize;
+  }
+
+  public BloomType getBloomFilterType() {
+    return bloomFilterType;
+  }
+
+  public Algorithm getCompression() {
+    return compression;
+  }
+
+  public DataBlockEncoding getDataBlockEncoding() {
+    return dataBlockEncoding;
+  }
+
+  public Boolean getInMemory() {
+    return inMemory;
+  }
+
+  public Integer getMaxVersions() {
+    return maxVersions;
+  }
+
+  public Integer getTimeToLive() {
+    return timeToLive;
+  }
+
+  /**
+   * Set size of HFile blocks. Smaller blocks speed up random reads, larger blocks speed up scans.
+   *
+   * @param blockSize number of bytes
+   */
+  public void setBlockSize(Integer blockSize) {
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Set type of bloom filter, which lets region servers skip HFiles not containing a row.
+   *
+   * @param bloomFilterType type of bloom filter
+   */
+  public void setBloomFilterType(BloomType bloomFilterType) {
+    this.bloomFilterType = bloomFilterType;
+  }
+
+  /**
+   * Set algorithm HFiles are compressed with. Codecs other than {@code GZ} may require native
+   * libraries on the region servers.
+   *
+   * @param compression compression algorithm
+   */
+  public void setCompression(Algorithm compression) {
+    this.compression = compression;
+  }
+
+  /**
+   * Set encoding of data blocks, e.g., {@link DataBlockEncoding#FAST_DIFF}, which avoids storing
+   * common prefixes of row keys repeatedly.
+   *
+   * @param dataBlockEncoding block encoding
+   */
+  public void setDataBlockEncoding(DataBlockEncoding dataBlockEncoding) {
+    this.dataBlockEncoding = dataBlockEncoding;
+  }
+
+  /**
+   * Set whether blocks are kept in the in-memory area of the block cache with priority.
+   *
+   * @param inMemory whether to keep blocks in memory
+   */
+  public void setInMemory(Boolean inMemory) {
+    this.inMemory = inMemory;
+  }
+
+  /**
+   * Set maximum number of versions kept per cell. The store only reads the latest version.
+   *
+   * @param maxVersions number of versions
+   */
+  public void setMaxVersions(Integer maxVersions) {
+    this.maxVersions = maxVersions;
+  }
+
+  /**
+   * Set time after which cells expire.
+   *
+   * @param timeToLive time in seconds
+   */
+  public void setTimeToLive(Integer timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * @param familyName name of column family
+   * @return descriptor of a column family with these settings
+   */
+  HColumnDescriptor createDescriptor(String familyName) {
+    HColumnDescriptor family = new HColumnDescriptor(familyName);
+    if (dataBlockEncoding != null) {
+      family.setDataBlockEncoding(dataBlockEncoding);
+    }
+    if (compression != null) {
+      family.setCompressionType(compression);
+    }
+    if (bloomFilterType != null) {
+      family.setBloomFilterType(bloomFilterType);
+    }
+    if (blockSize != null) {
+      family.setBlocksize(blockSize);
+    }
+    if (inMemory != null) {
+      family.setInMemory(inMemory);
+    }
+    if (timeToLive != null) {
+      family.setTimeToLive(timeToLive);
+    }
+    if (maxVersions != null) {
+      family.setMaxVersions(maxVersions);
+    }
+    return family;
+  }
+}
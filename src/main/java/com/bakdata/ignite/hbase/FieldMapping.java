@@ -0,0 +1,70 @@
+package com.bakdata.ignite.hbase;
+
+import com.bakdata.commons.serialization.Serializer;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps the fields of values to separate columns named after the fields. Region servers can then
+ * filter by single fields, e.g., using {@link org.apache.hadoop.hbase.filter.SingleColumnValueFilter},
+ * and scans can be restricted to some fields using a {@link Projection}.
+ *
+ * <p>Fields not included in the mapping are not stored. Columns of {@code null} fields are
+ * deleted. Each row additionally contains an empty column marking the value as present.</p>
+ */
+public class FieldMapping implements Serializable {
+
+  private static final long serialVersionUID = 6514860791328460165L;
+  // not final due to serialization
+  private String valueType;
+  private Map<String, Serializer<?>> fields = new LinkedHashMap<>();
+
+  public FieldMapping() {
+  }
+
+  /**
+   * @param valueType class name of values or type name of binary objects if the store keeps
+   * binary
+   */
+  public FieldMapping(String valueType) {
+    this.valueType = valueType;
+  }
+
+  /**
+   * Map a field to a column
+   *
+   * @param name name of the field, which is also used as column qualifier
+   * @param serializer serializer for values of the field
+   */
+  public void addField(String name, Serializer<?> serializer) {
+    fields.put(name, serializer);
+  }
+
+  public Map<String, Serializer<?>> getFields() {
+    return fields;
+  }
+
+  public String getValueType() {
+    return valueType;
+  }
+
+  /**
+   * Set fields to map to columns
+   *
+   * @param fields serializers by name of field
+   */
+  public void setFields(Map<String, Serializer<?>> fields) {
+    this.fields = new LinkedHashMap<>(fields);
+  }
+
+  /**
+   * Set type of values. If the store keeps binary, this is the type name of binary objects.
+   * Otherwise, this is the name of the class of values.
+   *
+   * @param valueType name of type
+   */
+  public void setValueType(String valueType) {
+    this.valueType = valueType;
+  }
+}
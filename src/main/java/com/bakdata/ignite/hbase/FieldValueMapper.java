@@ -0,0 +1,251 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.bakdata.commons.serialization.SerializationException;
+import com.bakdata.commons.serialization.Serializer;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteBinary;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.binary.BinaryObjectBuilder;
+import org.apache.ignite.binary.BinaryObjectException;
+import org.objenesis.ObjenesisStd;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+/**
+ * Stores each field of a value in its own column as configured by a {@link FieldMapping}. Values
+ * are either POJOs or, if the store keeps binary, binary objects.
+ *
+ * <p>Columns of {@code null} fields are deleted. An additional empty column marks the value as
+ * present even if all of its fields, or all projected fields, are {@code null}.</p>
+ */
+final class FieldValueMapper implements ValueMapper<Object> {
+
+  private static final byte[] MARKER = HConstants.EMPTY_BYTE_ARRAY;
+  private final List<MappedField> fields;
+  private final Map<String, MappedField> fieldsByName;
+  private final Accessor accessor;
+
+  private FieldValueMapper(List<MappedField> fields, Accessor accessor) {
+    this.fields = fields;
+    this.fieldsByName = new HashMap<>();
+    fields.forEach(field -> fieldsByName.put(field.name, field));
+    this.accessor = accessor;
+  }
+
+  /**
+   * @param mapping mapping of fields to columns
+   * @param ignite local node
+   * @param keepBinary whether values are binary objects
+   * @return mapper for the fields
+   */
+  @SuppressWarnings("unchecked")
+  static FieldValueMapper create(FieldMapping mapping, Ignite ignite, boolean keepBinary) {
+    checkState(mapping.getValueType() != null, "Value type of field mapping must be set");
+    checkState(!mapping.getFields().isEmpty(), "Field mapping must contain at least one field");
+    List<MappedField> fields = new ArrayList<>();
+    for (Entry<String, Serializer<?>> entry : mapping.getFields().entrySet()) {
+      fields.add(new MappedField(entry.getKey(), (Serializer<Object>) entry.getValue()));
+    }
+    Accessor accessor = keepBinary ? new BinaryAccessor(ignite.binary(), mapping.getValueType())
+        : PojoAccessor.create(mapping.getValueType(), fields);
+    return new FieldValueMapper(fields, accessor);
+  }
+
+  private static void addDeleteColumn(Put put, byte[] family, byte[] qualifier) {
+    try {
+      // stamped with the time of the put by the region server like the other cells
+      put.add(new KeyValue(put.getRow(), family, qualifier, HConstants.LATEST_TIMESTAMP,
+          KeyValue.Type.DeleteColumn));
+    } catch (IOException e) {
+      // only thrown for cells of other rows
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public List<byte[]> qualifiers(Projection projection) {
+    List<byte[]> qualifiers = new ArrayList<>();
+    qualifiers.add(MARKER);
+    if (projection == null) {
+      fields.forEach(field -> qualifiers.add(field.qualifier));
+      return qualifiers;
+    }
+    for (String name : projection.getFields()) {
+      MappedField field = fieldsByName.get(name);
+      checkArgument(field != null, "Field %s is not mapped", name);
+      qualifiers.add(field.qualifier);
+    }
+    return qualifiers;
+  }
+
+  /**
+   * {@code null} fields are added as delete markers, which remove previous values of their columns
+   * when the put is applied.
+   */
+  @Override
+  public void addValue(Put put, byte[] family, Object value) throws SerializationException {
+    put.addColumn(family, MARKER, HConstants.EMPTY_BYTE_ARRAY);
+    for (MappedField field : fields) {
+      Object fieldValue = accessor.get(value, field.name);
+      if (fieldValue == null) {
+        addDeleteColumn(put, family, field.qualifier);
+      } else {
+        put.addColumn(family, field.qualifier, field.serializer.serialize(fieldValue));
+      }
+    }
+  }
+
+  /**
+   * Fields are read from the backing arrays of their cells without copying. Fields without column
+   * in the result, e.g., due to a projection, are not set.
+   */
+  @Override
+  public Object extractValue(Result result, byte[] family) throws SerializationException {
+    Map<String, Object> values = new HashMap<>();
+    for (MappedField field : fields) {
+      Cell cell = result.getColumnLatestCell(family, field.qualifier);
+      if (cell != null) {
+        values.put(field.name, field.serializer
+            .deserialize(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
+      }
+    }
+    if (values.isEmpty() && !result.containsColumn(family, MARKER)) {
+      return null;
+    }
+    return accessor.create(values);
+  }
+
+  /**
+   * Reads fields from and creates values.
+   */
+  private interface Accessor {
+
+    Object get(Object value, String field) throws SerializationException;
+
+    Object create(Map<String, Object> fields) throws SerializationException;
+  }
+
+  private static final class MappedField {
+
+    private final String name;
+    private final byte[] qualifier;
+    private final Serializer<Object> serializer;
+
+    private MappedField(String name, Serializer<Object> serializer) {
+      this.name = name;
+      this.qualifier = name.getBytes();
+      this.serializer = serializer;
+    }
+  }
+
+  private static final class BinaryAccessor implements Accessor {
+
+    private final IgniteBinary binary;
+    private final String typeName;
+
+    private BinaryAccessor(IgniteBinary binary, String typeName) {
+      this.binary = binary;
+      this.typeName = typeName;
+    }
+
+    @Override
+    public Object get(Object value, String field) throws SerializationException {
+      try {
+        return ((BinaryObject) value).field(field);
+      } catch (ClassCastException | BinaryObjectException e) {
+        throw new SerializationException("Failed to read field " + field, e);
+      }
+    }
+
+    @Override
+    public Object create(Map<String, Object> fields) throws SerializationException {
+      try {
+        BinaryObjectBuilder builder = binary.builder(typeName);
+        fields.forEach(builder::setField);
+        return builder.build();
+      } catch (BinaryObjectException e) {
+        throw new SerializationException("Failed to create binary object of type " + typeName,
+            e);
+      }
+    }
+  }
+
+  private static final class PojoAccessor implements Accessor {
+
+    private final Map<String, Field> fields;
+    // values need not have a no-arg constructor
+    private final ObjectInstantiator<?> instantiator;
+
+    private PojoAccessor(Map<String, Field> fields, ObjectInstantiator<?> instantiator) {
+      this.fields = fields;
+      this.instantiator = instantiator;
+    }
+
+    private static PojoAccessor create(String className, List<MappedField> mappedFields) {
+      Class<?> clazz;
+      try {
+        clazz = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException("Value class " + className + " not found", e);
+      }
+      Map<String, Field> fields = new HashMap<>();
+      for (MappedField mappedField : mappedFields) {
+        Field field = findField(clazz, mappedField.name);
+        field.setAccessible(true);
+        fields.put(mappedField.name, field);
+      }
+      return new PojoAccessor(fields, new ObjenesisStd().getInstantiatorOf(clazz));
+    }
+
+    private static Field findField(Class<?> clazz, String name) {
+      for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+        try {
+          return c.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+          // continue with super class
+        }
+      }
+      throw new IllegalStateException("Field " + name + " not found in " + clazz.getName());
+    }
+
+    @Override
+    public Object get(Object value, String field) throws SerializationException {
+      try {
+        return fields.get(field).get(value);
+      } catch (IllegalAccessException | IllegalArgumentException e) {
+        throw new SerializationException("Failed to read field " + field, e);
+      }
+    }
+
+    @Override
+    public Object create(Map<String, Object> fieldValues) throws SerializationException {
+      Object value = instantiator.newInstance();
+      for (Entry<String, Object> entry : fieldValues.entrySet()) {
+        try {
+          Field field = fields.get(entry.getKey());
+          // primitive fields keep their default if the serializer returns null
+          if (entry.getValue() != null || !field.getType().isPrimitive()) {
+            field.set(value, entry.getValue());
+          }
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+          throw new SerializationException("Failed to set field " + entry.getKey(), e);
+        }
+      }
+      return value;
+    }
+  }
+}
@@ -20,6 +20,9 @@ final class FilterParser {
     FilterList filters = new FilterList();
     for (int i = 0; i < args.length; i++) {
       Object filter = args[i];
+      if (filter instanceof ScanArgument) {
+        continue;
+      }
       try {
         checkArgument(filter instanceof Filter,
             "Filter " + i + " must be of type " + Filter.class.getName()
@@ -29,6 +32,39 @@ final class FilterParser {
       }
       filters.addFilter((Filter) filter);
     }
-    return Optional.of(filters);
+    return filters.getFilters().isEmpty() ? Optional.empty() : Optional.of(filters);
+  }
+
+  static Optional<KeyRange<?>> findKeyRange(Object[] args) {
+    return findSingle(args, KeyRange.class, "key range").map(range -> (KeyRange<?>) range);
+  }
+
+  static Optional<KeyPrefix<?>> findKeyPrefix(Object[] args) {
+    return findSingle(args, KeyPrefix.class, "key prefix").map(prefix -> (KeyPrefix<?>) prefix);
+  }
+
+  static Optional<Projection> findProjection(Object[] args) {
+    return findSingle(args, Projection.class, "projection");
+  }
+
+  static Optional<RowLimit> findRowLimit(Object[] args) {
+    return findSingle(args, RowLimit.class, "row limit");
+  }
+
+  static Optional<TimestampRange> findTimestampRange(Object[] args) {
+    return findSingle(args, TimestampRange.class, "time range");
+  }
+
+  private static <T> Optional<T> findSingle(Object[] args, Class<T> type, String name) {
+    T found = null;
+    for (Object arg : args) {
+      if (type.isInstance(arg)) {
+        if (found != null) {
+          throw new CacheLoaderException("At most one " + name + " may be passed");
+        }
+        found = type.cast(arg);
+      }
+    }
+    return Optional.ofNullable(found);
   }
 }
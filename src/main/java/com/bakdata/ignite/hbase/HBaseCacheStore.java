@@ -1,38 +1,70 @@
 package com.bakdata.ignite.hbase;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
-import com.bakdata.commons.serialization.SerializationException;
 import com.bakdata.commons.serialization.Serializer;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import javax.cache.Cache.Entry;
-import javax.cache.CacheException;
 import javax.cache.integration.CacheLoaderException;
 import javax.cache.integration.CacheWriterException;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.hadoop.hbase.DoNotRetryIOException;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.TableNotEnabledException;
+import org.apache.hadoop.hbase.TableNotFoundException;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.cache.store.CacheStore;
 import org.apache.ignite.cache.store.CacheStoreSession;
 import org.apache.ignite.lang.IgniteBiInClosure;
+import org.apache.ignite.lifecycle.LifecycleAware;
 import org.apache.ignite.resources.CacheStoreSessionResource;
+import org.apache.ignite.resources.IgniteInstanceResource;
 import org.apache.ignite.resources.LoggerResource;
 
 /**
@@ -42,19 +74,65 @@ import org.apache.ignite.resources.LoggerResource;
  * @param <K> type of keys stored in this cache
  * @param <V> type of values stored in this cache
  */
-public class HBaseCacheStore<K, V> implements CacheStore<K, V>, Serializable {
+public class HBaseCacheStore<K, V> implements CacheStore<K, V>, LifecycleAware, Serializable {
 
   private static final long serialVersionUID = -3909649433524475L;
-  private static final byte[] QUALIFIER = "value".getBytes();
+  private static final int DEFAULT_SCAN_CACHING = 1000;
+  private static final long DEFAULT_SCAN_MAX_RESULT_SIZE = 2L * 1024 * 1024;
+  private static final long DEFAULT_NEGATIVE_CACHE_TTL = 60_000L;
+  private static final long DEFAULT_RETRY_BACKOFF = 100L;
+  private static final int MAX_BACKOFF_EXPONENT = 10;
+  private static final int DEFAULT_CIRCUIT_BREAKER_MINIMUM_REQUESTS = 20;
+  private static final long DEFAULT_CIRCUIT_BREAKER_WINDOW = 10_000L;
+  private static final long DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 5_000L;
 
   // not final due to serialization
   private Serializer<K> keySerializer;
   private Serializer<V> valueSerializer;
+  private int scanCaching = DEFAULT_SCAN_CACHING;
+  private long scanMaxResultSize = DEFAULT_SCAN_MAX_RESULT_SIZE;
+  private boolean scanCacheBlocks;
+  private int scanBatch;
+  private boolean scanSmall;
+  private int loadCacheThreads = Runtime.getRuntime().availableProcessors();
+  private boolean partitionAware;
+  private int saltBuckets;
+  private boolean keepBinary;
+  private FieldMapping fieldMapping;
+  private long negativeCacheSize;
+  private long negativeCacheTtl = DEFAULT_NEGATIVE_CACHE_TTL;
+  private boolean coalesceLoads;
+  private long loadBatchWindow;
+  private int ioThreads;
+  private int maxInflightRequests;
+  private int maxBatchSize;
+  private long maxBatchBytes;
+  private long operationTimeout;
+  private int maxRetries;
+  private long retryBackoff = DEFAULT_RETRY_BACKOFF;
+  private double circuitBreakerFailureRate;
+  private int circuitBreakerMinimumRequests = DEFAULT_CIRCUIT_BREAKER_MINIMUM_REQUESTS;
+  private long circuitBreakerWindow = DEFAULT_CIRCUIT_BREAKER_WINDOW;
+  private long circuitBreakerOpenDuration = DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION;
+  private boolean loadFallbackToMiss;
+
+  private transient ConcurrentMap<String, RowConverter<K, V>> converters =
+      new ConcurrentHashMap<>();
+  private transient ConcurrentMap<String, StoreMetrics> metrics = new ConcurrentHashMap<>();
+  private transient ConcurrentMap<String, NegativeCache> negativeCaches =
+      new ConcurrentHashMap<>();
+  private transient ConcurrentMap<String, LoadCoalescer> coalescers = new ConcurrentHashMap<>();
+  private transient ConcurrentMap<TableName, CircuitBreaker> circuitBreakers =
+      new ConcurrentHashMap<>();
+  private transient volatile AsyncExecutor executor;
+  private transient Map<ObjectName, MBeanServer> registeredMBeans = new ConcurrentHashMap<>();
 
   @CacheStoreSessionResource
   private transient CacheStoreSession session;
   @LoggerResource
   private transient IgniteLogger logger;
+  @IgniteInstanceResource
+  private transient Ignite ignite;
 
   /**
    * @deprecated Do not use. Exists only to provide a no-arg constructor for Ignite and factories.
@@ -72,62 +150,239 @@ public class HBaseCacheStore<K, V> implements CacheStore<K, V>, Serializable {
     this.valueSerializer = valueSerializer;
   }
 
-  private static <T> Stream<T> stream(Iterable<T> iterable) {
-    return StreamSupport.stream(iterable.spliterator(), false);
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    converters = new ConcurrentHashMap<>();
+    metrics = new ConcurrentHashMap<>();
+    negativeCaches = new ConcurrentHashMap<>();
+    coalescers = new ConcurrentHashMap<>();
+    circuitBreakers = new ConcurrentHashMap<>();
+    registeredMBeans = new ConcurrentHashMap<>();
   }
 
   /**
-   * <p>Redirects to {@link #deleteAll(Collection)} as HBase expects batch operations anyways.</p>
+   * <p>Sends a single delete without creating a batch. Counted as {@link #deleteAll(Collection)}
+   * of one key in the {@link HBaseCacheStoreMXBean metrics}.</p>
    *
    * {@inheritDoc}
    */
   @Override
   public void delete(Object key) throws CacheWriterException {
-    // HBase expects batches of operations
-    deleteAll(Collections.singletonList(key));
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      Delete delete = converter().createDelete(key);
+      long serialized = System.nanoTime();
+      delete(delete);
+      long end = System.nanoTime();
+      storeMetrics.deleteAll().record(1, end - start, serialized - start, end - serialized);
+      storeMetrics.addBytesWritten(StoreMetrics.size(delete));
+      if (logger.isDebugEnabled()) {
+        logger.debug("Deleted 1 value in " + millis(end - start) + "ms");
+      }
+    } catch (RuntimeException e) {
+      storeMetrics.deleteAll().error();
+      throw e;
+    }
   }
 
   @Override
   public void deleteAll(Collection<?> keys) throws CacheWriterException {
-    List<Delete> deletes = createDeletes(keys);
-    long start = System.currentTimeMillis();
-    delete(deletes);
-    long time = System.currentTimeMillis() - start;
-    logger.debug("Deleted " + deletes.size() + " values in " + time + "ms");
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      List<Delete> deletes = converter().createDeletes(keys);
+      // HBase removes successful deletes from the list
+      int size = deletes.size();
+      long bytes = StoreMetrics.size(deletes);
+      long serialized = System.nanoTime();
+      delete(deletes);
+      long end = System.nanoTime();
+      storeMetrics.deleteAll().record(size, end - start, serialized - start, end - serialized);
+      storeMetrics.addBytesWritten(bytes);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Deleted " + size + " values in " + millis(end - start) + "ms");
+      }
+    } catch (RuntimeException e) {
+      storeMetrics.deleteAll().error();
+      throw e;
+    }
   }
 
   /**
-   * <p>Redirects to {@link #loadAll(Iterable)} as HBase expects batch operations anyways.</p>
+   * <p>Sends a single get without creating a batch, unless loads are {@link
+   * #setCoalesceLoads(boolean) coalesced}. Counted as {@link #loadAll(Iterable)} of one key in the
+   * {@link HBaseCacheStoreMXBean metrics}.</p>
    *
    * {@inheritDoc}
    */
   @Override
   public V load(K key) throws CacheLoaderException {
-    // HBase expects batches of operations
-    return loadAll(Collections.singletonList(key)).get(key);
+    if (coalesceLoads || loadBatchWindow > 0L) {
+      // coalesced loads are shared as batches
+      return loadAll(Collections.singletonList(key)).get(key);
+    }
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      RowConverter<K, V> converter = converter();
+      Get get = converter.createGet(key);
+      Optional<NegativeCache> negativeCache = negativeCache();
+      if (negativeCache.isPresent() && negativeCache.get().isAbsent(get)) {
+        long end = System.nanoTime();
+        storeMetrics.loadAll().record(0, end - start, end - start, 0L);
+        storeMetrics.addNegativeCacheHits(1L);
+        return null;
+      }
+      long serialized = System.nanoTime();
+      Result result = negativeCache.isPresent() ? get(get, negativeCache.get()) : get(get);
+      long received = System.nanoTime();
+      V value = result.isEmpty() ? null : converter.extractValue(result);
+      long end = System.nanoTime();
+      storeMetrics.loadAll().record(1, end - start, (serialized - start) + (end - received),
+          received - serialized);
+      storeMetrics.addBytesRead(StoreMetrics.size(result));
+      if (logger.isDebugEnabled()) {
+        logger.debug("Got 1 value in " + millis(end - start) + "ms");
+      }
+      return value;
+    } catch (RuntimeException e) {
+      storeMetrics.loadAll().error();
+      if (loadFallbackToMiss && isCircuitOpen(e)) {
+        return null;
+      }
+      throw e;
+    }
   }
 
   @Override
   public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
-    List<Get> gets = createGets(keys);
-    long start = System.currentTimeMillis();
-    Result[] results = get(gets);
-    long time = System.currentTimeMillis() - start;
-    logger.debug("Got " + gets.size() + " values in " + time + "ms");
-    return resultsToMap(Arrays.asList(results));
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      RowConverter<K, V> converter = converter();
+      List<Get> gets = converter.createGets(keys);
+      Optional<NegativeCache> negativeCache = negativeCache();
+      if (negativeCache.isPresent()) {
+        int requested = gets.size();
+        gets.removeIf(negativeCache.get()::isAbsent);
+        storeMetrics.addNegativeCacheHits(requested - gets.size());
+      }
+      long serialized = System.nanoTime();
+      Result[] results = fetch(gets, negativeCache, storeMetrics);
+      long received = System.nanoTime();
+      Map<K, V> values = converter.resultsToMap(Arrays.asList(results));
+      long end = System.nanoTime();
+      storeMetrics.loadAll().record(gets.size(), end - start,
+          (serialized - start) + (end - received), received - serialized);
+      for (Result result : results) {
+        storeMetrics.addBytesRead(StoreMetrics.size(result));
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("Got " + gets.size() + " values in " + millis(end - start) + "ms");
+      }
+      return values;
+    } catch (RuntimeException e) {
+      storeMetrics.loadAll().error();
+      if (loadFallbackToMiss && isCircuitOpen(e)) {
+        return Collections.emptyMap();
+      }
+      throw e;
+    }
   }
 
   /**
+   * <p>Rows are passed to {@code clo} one by one while scanning. The whole column family is never
+   * held in memory. The scan is split by region boundaries and regions are scanned in parallel
+   * using up to {@link #setLoadCacheThreads(int) loadCacheThreads} threads. If this store is {@link
+   * #setPartitionAware(boolean) partition aware}, only the partitions owned by the local node are
+   * scanned instead.</p>
+   *
    * @param args List of {@link Filter} to use for scan. The filters will be aggregated using {@link
-   * FilterList}
+   * FilterList}. May contain a {@link Projection} to scan only some fields of a {@link
+   * #setFieldMapping(FieldMapping) field mapping} and a {@link KeyRange} to scan only an interval
+   * of keys.
    */
   @Override
   public void loadCache(IgniteBiInClosure<K, V> clo, Object... args) throws CacheLoaderException {
-    Scan scan = createScan(args);
-    Map<K, V> values = scan(scan);
-    values.forEach(clo::apply);
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      Scan scan = createScan(args);
+      KeyRange<byte[]> range = createKeyRange(args);
+      if (range != null && isEmpty(range)) {
+        long end = System.nanoTime();
+        storeMetrics.loadCache().record(0, end - start, end - start, 0L);
+        logger.debug("Loaded 0 values as key range is empty");
+        return;
+      }
+      flushCoalescedWrites();
+      List<Scan> scans;
+      if (partitionAware) {
+        scans = splitByLocalPartitions(scan, range);
+      } else if (saltBuckets > 0) {
+        scans = splitBySaltBuckets(scan, range);
+      } else {
+        scans = splitByRegions(scan, range);
+      }
+      AtomicLong remaining = FilterParser.findRowLimit(args)
+          .map(limit -> new AtomicLong(limit.getMaxRows()))
+          .orElse(null);
+      ScanStatistics statistics = scan(scans, clo, remaining);
+      long end = System.nanoTime();
+      storeMetrics.loadCache().record((int) Math.min(statistics.rows, Integer.MAX_VALUE),
+          end - start, statistics.serializationTime, statistics.hbaseTime);
+      storeMetrics.addBytesRead(statistics.bytes);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Loaded " + statistics.rows + " values in " + millis(end - start) + "ms");
+      }
+    } catch (RuntimeException e) {
+      storeMetrics.loadCache().error();
+      throw e;
+    }
   }
 
+  /**
+   * Compute split keys dividing the partitions of {@link #setPartitionAware(boolean) partition
+   * aware} stores evenly into regions. Use with {@link
+   * HBaseCacheStoreSessionListener#setSplitKeys(List)}.
+   *
+   * @param partitions number of partitions of the affinity function
+   * @param regions number of regions
+   * @return start keys of all but the first region
+   */
+  public static List<byte[]> partitionSplitKeys(int partitions, int regions) {
+    checkArgument(partitions > 0 && partitions <= PartitionPrefix.MAX_PARTITION + 1,
+        "Number of partitions must be between 1 and %s", PartitionPrefix.MAX_PARTITION + 1);
+    checkArgument(regions > 0 && regions <= partitions,
+        "Number of regions must be between 1 and the number of partitions %s", partitions);
+    List<byte[]> splitKeys = new ArrayList<>(regions - 1);
+    for (int region = 1; region < regions; region++) {
+      int partition = (int) ((long) region * partitions / regions);
+      splitKeys.add(PartitionPrefix.of(partition));
+    }
+    return splitKeys;
+  }
+
+  /**
+   * Compute split keys dividing the buckets of {@link #setSaltBuckets(int) salted} row keys evenly
+   * into regions. Use with {@link HBaseCacheStoreSessionListener#setSplitKeys(List)}.
+   *
+   * @param buckets number of salt buckets
+   * @param regions number of regions
+   * @return start keys of all but the first region
+   */
+  public static List<byte[]> saltSplitKeys(int buckets, int regions) {
+    checkArgument(buckets > 0 && buckets <= SaltPrefix.MAX_BUCKETS,
+        "Number of salt buckets must be between 1 and %s", SaltPrefix.MAX_BUCKETS);
+    checkArgument(regions > 0 && regions <= buckets,
+        "Number of regions must be between 1 and the number of buckets %s", buckets);
+    List<byte[]> splitKeys = new ArrayList<>(regions - 1);
+    for (int region = 1; region < regions; region++) {
+      splitKeys.add(SaltPrefix.of(region * buckets / regions));
+    }
+    return splitKeys;
+  }
 
   /**
    * {@inheritDoc}
@@ -138,6 +393,132 @@ public class HBaseCacheStore<K, V> implements CacheStore<K, V>, Serializable {
   /* No-op */
   }
 
+  /**
+   * <p>Set failure rate at which requests to a table are rejected. Once this share of the requests
+   * of a {@link #setCircuitBreakerWindow(long) window} fails, the circuit breaker of the table
+   * opens and requests fail immediately with a {@link DoNotRetryIOException} instead of waiting for
+   * HBase. After the {@link #setCircuitBreakerOpenDuration(long) open duration}, a single trial
+   * request is sent and closes the breaker if it succeeds. Disabled by default.</p>
+   *
+   * <p>Requests rejected by HBase with a {@link DoNotRetryIOException}, e.g., for missing column
+   * families, do not count as failures, unless the table is missing or disabled. Each store keeps
+   * its own breaker per table on every node. Its state is exposed by the {@code
+   * CircuitBreakerState} attribute of the MBean of every cache the store writes to the table. Scans
+   * of {@link #loadCache(IgniteBiInClosure, Object...)} and buffered writes are not guarded.</p>
+   *
+   * @param circuitBreakerFailureRate failure rate between 0 and 1. If not positive, the breaker is
+   * disabled.
+   * @see #setLoadFallbackToMiss(boolean)
+   */
+  public void setCircuitBreakerFailureRate(double circuitBreakerFailureRate) {
+    checkArgument(circuitBreakerFailureRate <= 1.0, "Failure rate must not exceed 1 but is %s",
+        circuitBreakerFailureRate);
+    this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+    circuitBreakers.clear();
+  }
+
+  /**
+   * Set minimum number of requests in a window before the circuit breaker may open. Prevents a few
+   * failures of an otherwise idle store from opening the breaker. Defaults to 20.
+   *
+   * @param circuitBreakerMinimumRequests minimum number of requests
+   * @see #setCircuitBreakerFailureRate(double)
+   */
+  public void setCircuitBreakerMinimumRequests(int circuitBreakerMinimumRequests) {
+    checkArgument(circuitBreakerMinimumRequests > 0, "Minimum requests must be positive");
+    this.circuitBreakerMinimumRequests = circuitBreakerMinimumRequests;
+    circuitBreakers.clear();
+  }
+
+  /**
+   * Set time an open circuit breaker rejects requests before sending a trial request. Defaults to 5
+   * seconds.
+   *
+   * @param circuitBreakerOpenDuration open duration in milliseconds
+   * @see #setCircuitBreakerFailureRate(double)
+   */
+  public void setCircuitBreakerOpenDuration(long circuitBreakerOpenDuration) {
+    checkArgument(circuitBreakerOpenDuration > 0L, "Open duration must be positive");
+    this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    circuitBreakers.clear();
+  }
+
+  /**
+   * Set length of the windows in which the circuit breaker counts requests and failures. Defaults
+   * to 10 seconds.
+   *
+   * @param circuitBreakerWindow window in milliseconds
+   * @see #setCircuitBreakerFailureRate(double)
+   */
+  public void setCircuitBreakerWindow(long circuitBreakerWindow) {
+    checkArgument(circuitBreakerWindow > 0L, "Window must be positive");
+    this.circuitBreakerWindow = circuitBreakerWindow;
+    circuitBreakers.clear();
+  }
+
+  /**
+   * <p>Set whether concurrent loads of the same keys share a single get. A thread loading a key
+   * which is already requested from HBase by another thread waits for that request. This avoids
+   * bursts of identical gets when hot keys are evicted. Disabled by default.</p>
+   *
+   * <p>A load joining a request sent before a concurrent write of the key may return the previous
+   * value, just like a load sent before the write.</p>
+   *
+   * @param coalesceLoads whether to coalesce loads
+   * @see #setLoadBatchWindow(long)
+   */
+  public void setCoalesceLoads(boolean coalesceLoads) {
+    this.coalesceLoads = coalesceLoads;
+  }
+
+  /**
+   * <p>Set mapping of the fields of values to separate columns. If not set, values are serialized
+   * to a single column using the {@link #setValueSerializer(Serializer) value serializer}. Fields
+   * of binary objects are mapped if this store {@link #setKeepBinary(boolean) keeps binary}.</p>
+   *
+   * <p>Changes the layout of the HBase table and must therefore not be changed for existing
+   * tables.</p>
+   *
+   * @param fieldMapping mapping of fields to columns
+   */
+  public void setFieldMapping(FieldMapping fieldMapping) {
+    this.fieldMapping = fieldMapping;
+    converters.clear();
+  }
+
+  /**
+   * <p>Set number of threads sending requests of {@code load}, {@code loadAll}, {@code write},
+   * {@code writeAll}, {@code delete} and {@code deleteAll} to HBase. Calling threads wait for their
+   * requests, but only the I/O threads block on HBase RPCs and connections to HBase are bounded by
+   * their number. Requests run on the calling threads by default.</p>
+   *
+   * <p>Must be set before the store is used. Use {@link #setMaxInflightRequests(int)} to bound the
+   * number of queued requests.</p>
+   *
+   * @param ioThreads number of I/O threads. If not positive, requests run on the calling threads.
+   */
+  public void setIoThreads(int ioThreads) {
+    this.ioThreads = ioThreads;
+  }
+
+  /**
+   * <p>Set whether keys and values are stored in the binary format of Ignite instead of using the
+   * configured serializers. Binary objects passed to the store are written to HBase as is and
+   * loaded as binary objects, which saves converting them from and to their classes. Enable {@link
+   * org.apache.ignite.configuration.CacheConfiguration#setStoreKeepBinary(boolean)} to have the
+   * cache pass binary objects to the store.</p>
+   *
+   * <p>Changes the format of the HBase table and must therefore not be changed for existing
+   * tables. Requires the binary marshaller with compact footers disabled, see {@link
+   * org.apache.ignite.configuration.BinaryConfiguration#setCompactFooter(boolean)}.</p>
+   *
+   * @param keepBinary whether keys and values are stored in binary format
+   */
+  public void setKeepBinary(boolean keepBinary) {
+    this.keepBinary = keepBinary;
+    converters.clear();
+  }
+
   /**
    * Set {@link Serializer} to serialize and deserialize keys
    *
@@ -145,6 +526,259 @@ public class HBaseCacheStore<K, V> implements CacheStore<K, V>, Serializable {
    */
   public void setKeySerializer(Serializer<K> keySerializer) {
     this.keySerializer = keySerializer;
+    converters.clear();
+  }
+
+  /**
+   * Set time to delay single-key loads to merge them with loads of other threads into one
+   * multi-get. Trades latency of single loads for fewer RPCs when many threads load distinct keys.
+   * Implies {@link #setCoalesceLoads(boolean) coalescing}. Disabled by default.
+   *
+   * @param loadBatchWindow window in microseconds. If not positive, single loads are sent
+   * immediately.
+   */
+  public void setLoadBatchWindow(long loadBatchWindow) {
+    this.loadBatchWindow = loadBatchWindow;
+    coalescers.clear();
+  }
+
+  /**
+   * Set maximum number of threads used to scan regions in parallel in {@link
+   * #loadCache(IgniteBiInClosure, Object...)}. Each thread scans one region at a time. Defaults to
+   * the number of available processors.
+   *
+   * @param loadCacheThreads number of threads
+   */
+  public void setLoadCacheThreads(int loadCacheThreads) {
+    this.loadCacheThreads = loadCacheThreads;
+  }
+
+  /**
+   * Set whether {@code load} and {@code loadAll} report keys as missing while the {@link
+   * #setCircuitBreakerFailureRate(double) circuit breaker} is open instead of failing. Keeps
+   * read-through caches serving cached entries when HBase is unavailable, at the cost of
+   * temporarily treating stored keys as absent. Such misses are not remembered by the {@link
+   * #setNegativeCacheSize(long) negative cache}. Disabled by default.
+   *
+   * @param loadFallbackToMiss whether loads fall back to misses
+   */
+  public void setLoadFallbackToMiss(boolean loadFallbackToMiss) {
+    this.loadFallbackToMiss = loadFallbackToMiss;
+  }
+
+  /**
+   * <p>Set maximum number of keys remembered to be absent in HBase per cache. Loading such keys
+   * again does not access HBase. This is useful for read-through caches with frequent lookups of
+   * keys which do not exist. Keys written by this store are forgotten immediately, keys written to
+   * HBase by other clients after the {@link #setNegativeCacheTtl(long) time to live}. Disabled by
+   * default.</p>
+   *
+   * <p>Each node keeps its own negative cache. Hence, all writes must go through the Ignite caches
+   * of the same nodes, which is the case if all writes are routed through this store. Cannot be
+   * combined with {@link HBaseCacheStoreSessionListener#setBufferedWrites(boolean) buffered
+   * writes}, which reach HBase only after invalidating the negative cache.</p>
+   *
+   * @param negativeCacheSize maximum number of absent keys. If not positive, absent keys are not
+   * remembered.
+   */
+  public void setNegativeCacheSize(long negativeCacheSize) {
+    this.negativeCacheSize = negativeCacheSize;
+    negativeCaches.clear();
+  }
+
+  /**
+   * Set time after which absent keys are forgotten. Defaults to 60 seconds.
+   *
+   * @param negativeCacheTtl time to live in milliseconds
+   * @see #setNegativeCacheSize(long)
+   */
+  public void setNegativeCacheTtl(long negativeCacheTtl) {
+    checkArgument(negativeCacheTtl > 0L, "Time to live must be positive");
+    this.negativeCacheTtl = negativeCacheTtl;
+    negativeCaches.clear();
+  }
+
+  /**
+   * Set maximum number of bytes of puts and deletes sent to HBase in a single request. Larger
+   * batches are split like batches exceeding the {@link #setMaxBatchSize(int) maximum batch size}.
+   * Unlimited by default.
+   *
+   * @param maxBatchBytes maximum number of bytes, estimated by the heap size of mutations. If not
+   * positive, batches are not split by bytes.
+   */
+  public void setMaxBatchBytes(long maxBatchBytes) {
+    this.maxBatchBytes = maxBatchBytes;
+  }
+
+  /**
+   * <p>Set maximum number of gets, puts or deletes sent to HBase in a single request. Larger
+   * batches, e.g., of write-behind flushes or large {@code getAll} calls, are split into
+   * sub-batches, each addressing a single region server. Unlimited by default.</p>
+   *
+   * <p>Sub-batches are sent in parallel by the {@link #setIoThreads(int) I/O threads}, bounded by
+   * the {@link #setMaxInflightRequests(int) maximum number of requests in flight}. Without I/O
+   * threads, they are sent one after another. Buffered writes are not split as the buffered
+   * mutator sends its own batches.</p>
+   *
+   * @param maxBatchSize maximum number of operations. If not positive, batches are not split by
+   * number.
+   */
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Set maximum number of HBase requests of this store in flight per node. Further requests block
+   * until a request completes. This bounds the load a single node puts on slow region servers.
+   * Unlimited by default. Must be set before the store is used.
+   *
+   * @param maxInflightRequests maximum number of requests. If not positive, requests are not
+   * limited.
+   */
+  public void setMaxInflightRequests(int maxInflightRequests) {
+    this.maxInflightRequests = maxInflightRequests;
+  }
+
+  /**
+   * <p>Set maximum number of times a failed HBase request of {@code load}, {@code loadAll}, {@code
+   * write}, {@code writeAll}, {@code delete} or {@code deleteAll} is sent again. Retries wait for a
+   * random time of up to the {@link #setRetryBackoff(long) backoff}, doubling with every attempt,
+   * so that nodes retrying at the same time spread their requests. Requests are not retried by
+   * default as the HBase client already retries individual RPCs.</p>
+   *
+   * <p>{@link DoNotRetryIOException}s, e.g., for missing column families, are not retried. No retry
+   * is started after the {@link #setOperationTimeout(long) operation timeout} elapsed.</p>
+   *
+   * @param maxRetries maximum number of retries
+   */
+  public void setMaxRetries(int maxRetries) {
+    checkArgument(maxRetries >= 0, "Maximum retries must not be negative");
+    this.maxRetries = maxRetries;
+  }
+
+  /**
+   * <p>Set time callers wait for an HBase request of {@code load}, {@code loadAll}, {@code write},
+   * {@code writeAll}, {@code delete} or {@code deleteAll}, including all {@link #setMaxRetries(int)
+   * retries}. Unlimited by default.</p>
+   *
+   * <p>Callers only stop waiting early if requests are sent by {@link #setIoThreads(int) I/O
+   * threads}. Otherwise, the timeout only prevents further retries. Configure {@code
+   * hbase.client.operation.timeout} and {@code hbase.rpc.timeout} with {@link
+   * HBaseCacheStoreSessionListener#addProperty(String, String)} to bound individual HBase
+   * calls.</p>
+   *
+   * @param operationTimeout timeout in milliseconds. If not positive, callers wait until requests
+   * complete.
+   */
+  public void setOperationTimeout(long operationTimeout) {
+    this.operationTimeout = operationTimeout;
+  }
+
+  /**
+   * <p>Set whether row keys are prefixed with the Ignite partition of the key. This allows {@link
+   * #loadCache(IgniteBiInClosure, Object...)} to scan only the rows of partitions owned by the
+   * local node instead of the whole table on every node.</p>
+   *
+   * <p>Changes the layout of the HBase table and must therefore not be changed for existing
+   * tables. Filters passed to {@link #loadCache(IgniteBiInClosure, Object...)} see the prefixed row
+   * keys. Requires a fixed number of partitions of the affinity function. Each Ignite node must use
+   * its own store instance.</p>
+   *
+   * @param partitionAware whether row keys are prefixed with the partition
+   */
+  public void setPartitionAware(boolean partitionAware) {
+    this.partitionAware = partitionAware;
+    converters.clear();
+  }
+
+  /**
+   * Set base time to wait before retrying a failed request. Defaults to 100 milliseconds.
+   *
+   * @param retryBackoff backoff in milliseconds
+   * @see #setMaxRetries(int)
+   */
+  public void setRetryBackoff(long retryBackoff) {
+    checkArgument(retryBackoff >= 0L, "Backoff must not be negative");
+    this.retryBackoff = retryBackoff;
+  }
+
+  /**
+   * <p>Set number of buckets row keys are salted with. Each row key is prefixed with a bucket byte
+   * derived from the hash of the serialized key. This spreads consecutive keys, e.g., monotonically
+   * increasing numbers, across regions split by bucket instead of writing all of them to the last
+   * region. {@link #loadCache(IgniteBiInClosure, Object...)} scans the buckets in parallel. If not
+   * positive, row keys are not salted.</p>
+   *
+   * <p>Changes the layout of the HBase table and must therefore not be changed for existing
+   * tables. Filters passed to {@link #loadCache(IgniteBiInClosure, Object...)} see the salted row
+   * keys. Cannot be combined with {@link #setPartitionAware(boolean) partition aware} row keys,
+   * which are spread by partition already. Pre-split the table using {@link #saltSplitKeys(int,
+   * int)}.</p>
+   *
+   * @param saltBuckets number of buckets, at most {@value SaltPrefix#MAX_BUCKETS}
+   */
+  public void setSaltBuckets(int saltBuckets) {
+    checkArgument(saltBuckets <= SaltPrefix.MAX_BUCKETS,
+        "Number of salt buckets must be at most %s", SaltPrefix.MAX_BUCKETS);
+    this.saltBuckets = saltBuckets;
+    converters.clear();
+  }
+
+  /**
+   * Set maximum number of columns returned per result when scanning HBase in {@link
+   * #loadCache(IgniteBiInClosure, Object...)}. Rows are assembled from a single result, hence the
+   * batch must not be smaller than the number of columns scanned per row. Cannot be combined with
+   * {@link #setScanSmall(boolean) small scans}. If not positive, whole rows are returned. Defaults
+   * to 0.
+   *
+   * @param scanBatch number of columns
+   */
+  public void setScanBatch(int scanBatch) {
+    this.scanBatch = scanBatch;
+  }
+
+  /**
+   * Set whether blocks read when scanning HBase in {@link #loadCache(IgniteBiInClosure, Object...)}
+   * are put into the block cache of region servers. A full scan would otherwise evict the blocks
+   * needed by point reads. Defaults to false.
+   *
+   * @param scanCacheBlocks whether to cache blocks
+   */
+  public void setScanCacheBlocks(boolean scanCacheBlocks) {
+    this.scanCacheBlocks = scanCacheBlocks;
+  }
+
+  /**
+   * Set number of rows fetched per RPC when scanning HBase in {@link #loadCache(IgniteBiInClosure,
+   * Object...)}. Defaults to {@value #DEFAULT_SCAN_CACHING}.
+   *
+   * @param scanCaching number of rows
+   */
+  public void setScanCaching(int scanCaching) {
+    this.scanCaching = scanCaching;
+  }
+
+  /**
+   * Set maximum number of bytes fetched per RPC when scanning HBase in {@link
+   * #loadCache(IgniteBiInClosure, Object...)}. Bounds the memory used by the scanner regardless of
+   * the size of the table. Defaults to 2 MB.
+   *
+   * @param scanMaxResultSize number of bytes
+   */
+  public void setScanMaxResultSize(long scanMaxResultSize) {
+    this.scanMaxResultSize = scanMaxResultSize;
+  }
+
+  /**
+   * Set whether scans in {@link #loadCache(IgniteBiInClosure, Object...)} are small scans. Small
+   * scans fetch their rows with positional reads and without opening a scanner on the region
+   * server, which saves RPCs for ranges within a single data block, e.g., a {@link KeyPrefix} or
+   * {@link RowLimit} matching few rows. Full scans should not be small. Defaults to false.
+   *
+   * @param scanSmall whether scans are small
+   */
+  public void setScanSmall(boolean scanSmall) {
+    this.scanSmall = scanSmall;
   }
 
   /**
@@ -154,157 +788,840 @@ public class HBaseCacheStore<K, V> implements CacheStore<K, V>, Serializable {
    */
   public void setValueSerializer(Serializer<V> valueSerializer) {
     this.valueSerializer = valueSerializer;
+    converters.clear();
+  }
+
+  @Override
+  public void start() {
+    /* No-op */
+  }
+
+  /**
+   * Close the executor of asynchronous requests and unregister the {@link HBaseCacheStoreMXBean
+   * metrics} of all caches of this store. A restarted store creates a new executor on first use.
+   */
+  @Override
+  public void stop() {
+    AsyncExecutor executor;
+    synchronized (this) {
+      executor = this.executor;
+      this.executor = null;
+    }
+    if (executor != null) {
+      executor.close();
+    }
+    registeredMBeans.forEach((name, server) -> {
+      try {
+        server.unregisterMBean(name);
+      } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+        logger.warning("Failed to unregister metrics " + name, e);
+      }
+    });
+    registeredMBeans.clear();
   }
 
   /**
-   * <p>Redirects to {@link #writeAll(Collection)} as HBase expects batch operations anyways.</p>
+   * <p>Sends a single put without creating a batch. Counted as {@link #writeAll(Collection)} of one
+   * entry in the {@link HBaseCacheStoreMXBean metrics}.</p>
    *
    * {@inheritDoc}
    */
   @Override
   public void write(Entry<? extends K, ? extends V> entry) throws CacheWriterException {
-    // HBase expects batches of operations
-    writeAll(Collections.singletonList(entry));
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      Put put = converter().createPut(entry);
+      long serialized = System.nanoTime();
+      put(put);
+      negativeCache().ifPresent(negativeCache -> negativeCache.invalidate(put));
+      long end = System.nanoTime();
+      storeMetrics.writeAll().record(1, end - start, serialized - start, end - serialized);
+      storeMetrics.addBytesWritten(StoreMetrics.size(put));
+      if (logger.isDebugEnabled()) {
+        logger.debug("Put 1 value in " + millis(end - start) + "ms");
+      }
+    } catch (RuntimeException e) {
+      storeMetrics.writeAll().error();
+      throw e;
+    }
   }
 
   @Override
   public void writeAll(Collection<Entry<? extends K, ? extends V>> entries)
       throws CacheWriterException {
-    List<Put> puts = createPuts(entries);
-    long start = System.currentTimeMillis();
-    put(puts);
-    long time = System.currentTimeMillis() - start;
-    logger.debug("Put " + puts.size() + " values in " + time + "ms");
+    StoreMetrics storeMetrics = metrics();
+    long start = System.nanoTime();
+    try {
+      List<Put> puts = converter().createPuts(entries);
+      long serialized = System.nanoTime();
+      put(puts);
+      negativeCache().ifPresent(negativeCache -> negativeCache.invalidate(puts));
+      long end = System.nanoTime();
+      storeMetrics.writeAll().record(puts.size(), end - start, serialized - start,
+          end - serialized);
+      storeMetrics.addBytesWritten(StoreMetrics.size(puts));
+      if (logger.isDebugEnabled()) {
+        logger.debug("Put " + puts.size() + " values in " + millis(end - start) + "ms");
+      }
+    } catch (RuntimeException e) {
+      storeMetrics.writeAll().error();
+      throw e;
+    }
+  }
+
+  /**
+   * @return random backoff in milliseconds between 0 and an exponentially growing ceiling
+   */
+  private long backoff(int attempt) {
+    long ceiling = retryBackoff << Math.min(attempt, MAX_BACKOFF_EXPONENT);
+    return ThreadLocalRandom.current().nextLong(ceiling + 1L);
+  }
+
+  /**
+   * @return whether a failure is caused by the request itself, e.g., a missing column family,
+   * rather than by an unavailable table
+   */
+  private static boolean isRequestFailure(IOException e) {
+    if (e instanceof RetriesExhaustedWithDetailsException) {
+      List<Throwable> causes = ((RetriesExhaustedWithDetailsException) e).getCauses();
+      return !causes.isEmpty() && causes.stream().allMatch(HBaseCacheStore::isRejection);
+    }
+    return isRejection(e);
+  }
+
+  private static boolean isRejection(Throwable e) {
+    return e instanceof DoNotRetryIOException && !(e instanceof TableNotFoundException)
+        && !(e instanceof TableNotEnabledException);
+  }
+
+  private static boolean isCircuitOpen(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof CircuitBreaker.OpenException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void sleep(long nanos) throws InterruptedIOException {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while waiting to retry");
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+    return futures.size() == 1 ? futures.get(0)
+        : CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+  }
+
+  /**
+   * Wait for an HBase request and unwrap its failure.
+   */
+  private <T> T await(CompletableFuture<T> future) throws IOException {
+    try {
+      return operationTimeout > 0L ? future.get(operationTimeout, TimeUnit.MILLISECONDS)
+          : future.get();
+    } catch (TimeoutException e) {
+      throw new IOException("HBase did not respond within " + operationTimeout + "ms", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while waiting for HBase");
+      exception.initCause(e);
+      throw exception;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private void delete(Delete delete) {
+    try {
+      await(deleteAsync(delete));
+    } catch (IOException | IllegalStateException e) {
+      throw new CacheWriterException("Failed to delete key in HBase", e);
+    }
   }
 
   private void delete(List<Delete> deletes) {
     try {
-      table().delete(deletes);
+      await(deleteAsync(deletes));
     } catch (IOException | IllegalStateException e) {
       throw new CacheWriterException("Failed to delete keys in HBase", e);
     }
   }
 
-  private List<Delete> createDeletes(Collection<?> keys) {
-    return keys.stream()
-        .map(this::createDelete)
-        .collect(Collectors.toList());
+  private CompletableFuture<Void> deleteAsync(Delete delete) throws IOException {
+    Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+    if (coalescingBuffer.isPresent()) {
+      coalescingBuffer.get().mutate(session.cacheName(), Collections.singletonList(delete));
+      return CompletableFuture.completedFuture(null);
+    }
+    Optional<SharedMutator> mutator = tableSession().mutator();
+    if (mutator.isPresent()) {
+      mutator.get().mutate(Collections.singletonList(delete));
+      return CompletableFuture.completedFuture(null);
+    }
+    return submit(table -> {
+      table.delete(delete);
+      return null;
+    });
   }
 
-  private Delete createDelete(Object key) {
-    try {
-      @SuppressWarnings("unchecked")
-      Delete delete = new Delete(keySerializer.serialize((K) key));
-      delete.addColumns(family(), QUALIFIER);
-      return delete;
-    } catch (ClassCastException | SerializationException e) {
-      throw new CacheWriterException("Failed to create delete", e);
+  private CompletableFuture<Void> deleteAsync(List<Delete> deletes) throws IOException {
+    Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+    if (coalescingBuffer.isPresent()) {
+      coalescingBuffer.get().mutate(session.cacheName(), deletes);
+      return CompletableFuture.completedFuture(null);
+    }
+    Optional<SharedMutator> mutator = tableSession().mutator();
+    if (mutator.isPresent()) {
+      // buffered by the mutator, which sends mutations asynchronously anyways
+      mutator.get().mutate(deletes);
+      return CompletableFuture.completedFuture(null);
     }
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (List<Delete> batch : split(deletes)) {
+      futures.add(submit(table -> {
+        table.delete(batch);
+        return null;
+      }));
+    }
+    return allOf(futures);
   }
 
-  private V extractValue(Result result) {
-    byte[] bytes = result.getValue(family(), QUALIFIER);
-    return extractValue(bytes);
+  private static long millis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
   }
 
-  private V extractValue(byte[] bytes) {
-    if (bytes == null) {
+  private CircuitBreaker circuitBreaker(TableName tableName, StoreMetrics storeMetrics) {
+    if (circuitBreakerFailureRate <= 0.0) {
       return null;
     }
+    CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(tableName,
+        name -> new CircuitBreaker(circuitBreakerFailureRate, circuitBreakerMinimumRequests,
+            circuitBreakerWindow, circuitBreakerOpenDuration));
+    // caches may share a table and thus its breaker
+    storeMetrics.setCircuitBreaker(circuitBreaker);
+    return circuitBreaker;
+  }
+
+  private RowConverter<K, V> converter() {
+    return converters.computeIfAbsent(session.cacheName(), this::createConverter);
+  }
+
+  @SuppressWarnings("unchecked")
+  private RowConverter<K, V> createConverter(String cacheName) {
+    checkState(!partitionAware || saltBuckets <= 0,
+        "Partition aware row keys cannot be salted");
+    RowKeyPrefix prefix = null;
+    if (partitionAware) {
+      prefix = new PartitionPrefix(KeyPartitioner.create(ignite, cacheName));
+    } else if (saltBuckets > 0) {
+      prefix = new SaltPrefix(saltBuckets);
+    }
+    Serializer<?> binarySerializer = keepBinary ? BinaryObjectSerializer.create(ignite) : null;
+    Serializer<K> keys = keepBinary ? (Serializer<K>) binarySerializer : keySerializer;
+    ValueMapper<V> values;
+    if (fieldMapping != null) {
+      values = (ValueMapper<V>) FieldValueMapper.create(fieldMapping, ignite, keepBinary);
+    } else {
+      values = new BlobValueMapper<>(
+          keepBinary ? (Serializer<V>) binarySerializer : valueSerializer);
+    }
+    return new RowConverter<>(cacheName, keys, values, prefix);
+  }
+
+  /**
+   * Flush coalesced writes of all caches as scans must see them.
+   */
+  private void flushCoalescedWrites() {
+    try {
+      Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+      if (coalescingBuffer.isPresent()) {
+        coalescingBuffer.get().flush();
+      }
+    } catch (IOException e) {
+      throw new CacheLoaderException("Failed to flush coalesced writes to HBase", e);
+    }
+  }
+
+  private Optional<NegativeCache> negativeCache() {
+    if (negativeCacheSize <= 0L) {
+      return Optional.empty();
+    }
+    // buffered puts are not in HBase yet when invalidating, so loads could record them as absent
+    checkState(!tableSession().mutator().isPresent(),
+        "Negative cache cannot be combined with buffered writes");
+    return Optional.of(negativeCaches.computeIfAbsent(session.cacheName(),
+        cacheName -> new NegativeCache(negativeCacheSize, negativeCacheTtl)));
+  }
+
+  private StoreMetrics metrics() {
+    return metrics.computeIfAbsent(session.cacheName(), this::registerMetrics);
+  }
+
+  private StoreMetrics registerMetrics(String cacheName) {
+    StoreMetrics storeMetrics = new StoreMetrics();
+    MBeanServer server = ignite.configuration().getMBeanServer();
+    if (server == null) {
+      server = ManagementFactory.getPlatformMBeanServer();
+    }
     try {
-      return valueSerializer.deserialize(bytes);
-    } catch (SerializationException e) {
-      throw new CacheException("Error deserializing value", e);
+      String gridName = ignite.name() != null ? ignite.name() : "default";
+      ObjectName name = new ObjectName("com.bakdata.ignite.hbase:type=HBaseCacheStore,grid="
+          + ObjectName.quote(gridName) + ",cache=" + ObjectName.quote(cacheName));
+      server.registerMBean(storeMetrics, name);
+      registeredMBeans.put(name, server);
+    } catch (InstanceAlreadyExistsException e) {
+      // another store of the same cache, e.g., on a client node of the same JVM
+      logger.debug("Metrics of cache " + cacheName + " are already registered");
+    } catch (JMException e) {
+      logger.warning("Failed to register metrics of cache " + cacheName, e);
     }
+    return storeMetrics;
   }
 
-  private byte[] family() {
-    return session.cacheName().getBytes();
+  private AsyncExecutor executor() {
+    AsyncExecutor executor = this.executor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = this.executor;
+        if (executor == null) {
+          executor = new AsyncExecutor(ioThreads, maxInflightRequests);
+          this.executor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Send gets, coalesced with concurrent loads if enabled, and record misses in the negative cache.
+   */
+  private Result[] fetch(List<Get> gets, Optional<NegativeCache> negativeCache,
+      StoreMetrics storeMetrics) {
+    if (gets.isEmpty()) {
+      return new Result[0];
+    }
+    // misses must be recorded by the thread sending the get to not miss concurrent writes
+    Function<List<Get>, Result[]> fetch = negativeCache.isPresent()
+        ? batch -> get(batch, negativeCache.get())
+        : this::get;
+    if (!coalesceLoads && loadBatchWindow <= 0L) {
+      return fetch.apply(gets);
+    }
+    return coalescers.computeIfAbsent(session.cacheName(),
+        cacheName -> new LoadCoalescer(TimeUnit.MICROSECONDS.toNanos(loadBatchWindow),
+            storeMetrics))
+        .get(gets, fetch);
+  }
+
+  private Result get(Get get) {
+    try {
+      return await(getAsync(get));
+    } catch (IOException | IllegalStateException e) {
+      throw new CacheLoaderException("Failed to load key from HBase", e);
+    }
   }
 
   private Result[] get(List<Get> gets) {
     try {
-      return table().get(gets);
+      return await(getAsync(gets));
     } catch (IOException | IllegalStateException e) {
       throw new CacheLoaderException("Failed to load keys from HBase", e);
     }
   }
 
-  private List<Get> createGets(Iterable<? extends K> keys) {
-    return stream(keys)
-        .map(this::createGet)
-        .collect(Collectors.toList());
+  private CompletableFuture<Result> getAsync(Get get) throws IOException {
+    Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+    if (coalescingBuffer.isPresent()) {
+      coalescingBuffer.get().flush(session.cacheName(), Collections.singletonList(get));
+    }
+    return submit(table -> table.get(get));
   }
 
-  private Get createGet(K key) {
-    try {
-      Get get = new Get(keySerializer.serialize(key));
-      get.addColumn(family(), QUALIFIER);
-      return get;
-    } catch (SerializationException e) {
-      throw new CacheLoaderException("Failed to create get", e);
+  private CompletableFuture<Result[]> getAsync(List<Get> gets) throws IOException {
+    Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+    if (coalescingBuffer.isPresent()) {
+      // read coalesced writes of the loaded keys
+      coalescingBuffer.get().flush(session.cacheName(), gets);
+    }
+    BatchSplitter splitter = new BatchSplitter(maxBatchSize, maxBatchBytes);
+    // gets are small, hence they are only split by number
+    if (!splitter.exceeds(gets, get -> 0L)) {
+      return submit(table -> table.get(gets));
+    }
+    List<List<Integer>> batches;
+    try (RegionLocator locator = tableSession().regionLocator()) {
+      batches = splitter.split(gets, get -> 0L, locator);
+    }
+    Result[] results = new Result[gets.size()];
+    List<CompletableFuture<Void>> futures = new ArrayList<>(batches.size());
+    for (List<Integer> batch : batches) {
+      List<Get> batchGets = BatchSplitter.select(gets, batch);
+      futures.add(submit(table -> table.get(batchGets)).thenAccept(batchResults -> {
+        for (int i = 0; i < batchResults.length; i++) {
+          results[batch.get(i)] = batchResults[i];
+        }
+      }));
+    }
+    return allOf(futures).thenApply(ignored -> results);
+  }
+
+  private Result get(Get get, NegativeCache negativeCache) {
+    long version = negativeCache.version();
+    Result result = get(get);
+    if (result.isEmpty()) {
+      negativeCache.addAbsent(get, version);
+    }
+    return result;
+  }
+
+  private Result[] get(List<Get> gets, NegativeCache negativeCache) {
+    long version = negativeCache.version();
+    Result[] results = get(gets);
+    List<Get> misses = new ArrayList<>();
+    for (int i = 0; i < results.length; i++) {
+      if (results[i].isEmpty()) {
+        misses.add(gets.get(i));
+      }
     }
+    negativeCache.addAbsent(misses, version);
+    return results;
   }
 
   private Scan createScan(Object[] args) {
     Scan scan = new Scan();
-    scan.addColumn(family(), QUALIFIER);
+    Projection projection = FilterParser.findProjection(args).orElse(null);
+    try {
+      int columns = converter().addColumns(scan, projection);
+      if (scanBatch > 0) {
+        checkArgument(scanBatch >= columns,
+            "Scan batch %s is smaller than the number of columns %s", scanBatch, columns);
+        scan.setBatch(scanBatch);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new CacheLoaderException(e);
+    }
+    Optional<RowLimit> limit = FilterParser.findRowLimit(args);
+    long maxRows = limit.map(RowLimit::getMaxRows).orElse(Long.MAX_VALUE);
+    // do not fetch more rows than needed
+    scan.setCaching((int) Math.min(scanCaching, maxRows));
+    scan.setMaxResultSize(scanMaxResultSize);
+    scan.setCacheBlocks(scanCacheBlocks);
+    scan.setSmall(scanSmall);
+    Optional<TimestampRange> timeRange = FilterParser.findTimestampRange(args);
+    if (timeRange.isPresent()) {
+      try {
+        scan.setTimeRange(timeRange.get().getMin(), timeRange.get().getMax());
+      } catch (IOException e) {
+        throw new CacheLoaderException(e);
+      }
+    }
     Optional<Filter> filter = FilterParser.createFilter(args);
     filter.ifPresent(scan::setFilter);
     return scan;
   }
 
-  private Map<K, V> scan(Scan scan) {
-    try (ResultScanner scanner = table().getScanner(scan)) {
-      return resultsToMap(scanner);
+  /**
+   * @return range of serialized keys to scan, which is the intersection of the key range and key
+   * prefix passed, or null if neither has been passed
+   */
+  private KeyRange<byte[]> createKeyRange(Object[] args) {
+    RowConverter<K, V> converter = converter();
+    KeyRange<byte[]> range = FilterParser.findKeyRange(args)
+        .map(converter::serializeKeyRange)
+        .orElse(null);
+    KeyRange<byte[]> prefix = FilterParser.findKeyPrefix(args)
+        .map(converter::serializeKeyPrefix)
+        .orElse(null);
+    if (range == null || prefix == null) {
+      return range != null ? range : prefix;
+    }
+    // null bounds are unbounded
+    byte[] start = range.getStart();
+    if (start == null || prefix.getStart() != null
+        && Bytes.compareTo(prefix.getStart(), start) > 0) {
+      start = prefix.getStart();
+    }
+    byte[] stop = range.getStop();
+    if (stop == null || prefix.getStop() != null && Bytes.compareTo(prefix.getStop(), stop) < 0) {
+      stop = prefix.getStop();
+    }
+    return KeyRange.of(start, stop);
+  }
+
+  private static boolean isEmpty(KeyRange<byte[]> range) {
+    return range.getStart() != null && range.getStop() != null
+        && Bytes.compareTo(range.getStart(), range.getStop()) >= 0;
+  }
+
+  /**
+   * Restrict a scan to the rows with the given prefix.
+   *
+   * @param prefix prefix of rows to scan
+   * @param next prefix following {@code prefix} or null if there is none
+   * @param range range of keys to scan within the prefix or null to scan all keys
+   */
+  private static Scan prefixScan(Scan scan, byte[] prefix, byte[] next, KeyRange<byte[]> range)
+      throws IOException {
+    Scan prefixScan = new Scan(scan);
+    if (range != null && range.getStart() != null) {
+      prefixScan.setStartRow(Bytes.add(prefix, range.getStart()));
+    } else {
+      prefixScan.setStartRow(prefix);
+    }
+    if (range != null && range.getStop() != null) {
+      prefixScan.setStopRow(Bytes.add(prefix, range.getStop()));
+    } else if (next != null) {
+      prefixScan.setStopRow(next);
+    }
+    return prefixScan;
+  }
+
+  private List<Scan> splitByLocalPartitions(Scan scan, KeyRange<byte[]> range) {
+    Affinity<K> affinity = ignite.affinity(session.cacheName());
+    int[] partitions = affinity.allPartitions(ignite.cluster().localNode());
+    Arrays.sort(partitions);
+    List<Scan> scans = new ArrayList<>();
+    try {
+      for (int i = 0; i < partitions.length; ) {
+        int first = partitions[i];
+        int last = first;
+        // merge consecutive partitions into a single scan unless a key range is scanned in each
+        for (i++; range == null && i < partitions.length && partitions[i] == last + 1; i++) {
+          last = partitions[i];
+        }
+        byte[] next = last < PartitionPrefix.MAX_PARTITION ? PartitionPrefix.of(last + 1) : null;
+        scans.add(prefixScan(scan, PartitionPrefix.of(first), next, range));
+      }
+      return scans;
+    } catch (IOException e) {
+      throw new CacheLoaderException("Failed to create scan for partitions", e);
+    }
+  }
+
+  private List<Scan> splitByRegions(Scan scan, KeyRange<byte[]> range) {
+    try (RegionLocator locator = tableSession().regionLocator()) {
+      Pair<byte[][], byte[][]> keys = locator.getStartEndKeys();
+      byte[][] startKeys = keys.getFirst();
+      byte[][] endKeys = keys.getSecond();
+      List<Scan> scans = new ArrayList<>(startKeys.length);
+      for (int i = 0; i < startKeys.length; i++) {
+        byte[] startRow = startKeys[i];
+        byte[] stopRow = endKeys[i];
+        if (range != null) {
+          // intersect region with key range, empty rows are unbounded
+          if (range.getStart() != null && Bytes.compareTo(range.getStart(), startRow) > 0) {
+            startRow = range.getStart();
+          }
+          if (range.getStop() != null
+              && (stopRow.length == 0 || Bytes.compareTo(range.getStop(), stopRow) < 0)) {
+            stopRow = range.getStop();
+          }
+          if (stopRow.length > 0 && Bytes.compareTo(startRow, stopRow) >= 0) {
+            continue;
+          }
+        }
+        Scan regionScan = new Scan(scan);
+        regionScan.setStartRow(startRow);
+        regionScan.setStopRow(stopRow);
+        scans.add(regionScan);
+      }
+      return scans;
     } catch (IOException | IllegalStateException e) {
-      throw new CacheLoaderException("Failed to load cache from HBase", e);
+      throw new CacheLoaderException("Failed to locate regions in HBase", e);
     }
   }
 
-  private Map<K, V> resultsToMap(Iterable<Result> results) {
-    return stream(results)
-        .filter(result -> !result.isEmpty())
-        .collect(Collectors.toMap(this::extractKey, this::extractValue));
+  private List<Scan> splitBySaltBuckets(Scan scan, KeyRange<byte[]> range) {
+    List<Scan> scans = new ArrayList<>(saltBuckets);
+    try {
+      for (int bucket = 0; bucket < saltBuckets; bucket++) {
+        byte[] next = bucket + 1 < SaltPrefix.MAX_BUCKETS ? SaltPrefix.of(bucket + 1) : null;
+        scans.add(prefixScan(scan, SaltPrefix.of(bucket), next, range));
+      }
+      return scans;
+    } catch (IOException e) {
+      throw new CacheLoaderException("Failed to create scan for salt buckets", e);
+    }
   }
 
-  private K extractKey(Result result) {
+  /**
+   * @param remaining number of rows left to load, shared by all scans. May be null if the number
+   * of rows is not limited.
+   */
+  private ScanStatistics scan(List<Scan> scans, IgniteBiInClosure<K, V> clo,
+      AtomicLong remaining) {
+    // the session is bound to this thread, hence resolve everything needed by the workers here
+    RowConverter<K, V> converter = converter();
+    int threads = Math.min(loadCacheThreads, scans.size());
+    ScanStatistics statistics = new ScanStatistics();
+    if (threads <= 1) {
+      for (Scan scan : scans) {
+        statistics.add(scan(table(), scan, converter, clo, remaining));
+      }
+      return statistics;
+    }
+    TablePool pool = tableSession().pool();
+    TableName tableName = tableSession().tableName();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<ScanStatistics>> futures = new ArrayList<>(scans.size());
+      for (Scan scan : scans) {
+        futures.add(
+            executor.submit(() -> scan(pool, tableName, scan, converter, clo, remaining)));
+      }
+      for (Future<ScanStatistics> future : futures) {
+        statistics.add(future.get());
+      }
+      return statistics;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheLoaderException("Interrupted while loading cache from HBase", e);
+    } catch (ExecutionException e) {
+      throw new CacheLoaderException("Failed to load cache from HBase", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ScanStatistics scan(TablePool pool, TableName tableName, Scan scan,
+      RowConverter<K, V> converter, IgniteBiInClosure<K, V> clo, AtomicLong remaining) {
     try {
-      byte[] row = result.getRow();
-      return keySerializer.deserialize(row);
-    } catch (SerializationException e) {
-      throw new CacheException("Error deserializing key", e);
+      Table table = pool.borrow(tableName);
+      try {
+        return scan(table, scan, converter, clo, remaining);
+      } finally {
+        pool.release(table);
+      }
+    } catch (IOException e) {
+      throw new CacheLoaderException("Failed to load cache from HBase", e);
+    }
+  }
+
+  private ScanStatistics scan(Table table, Scan scan, RowConverter<K, V> converter,
+      IgniteBiInClosure<K, V> clo, AtomicLong remaining) {
+    ScanStatistics statistics = new ScanStatistics();
+    long start = System.nanoTime();
+    try (ResultScanner scanner = table.getScanner(scan)) {
+      for (Result result = scanner.next(); result != null; result = scanner.next()) {
+        long received = System.nanoTime();
+        statistics.hbaseTime += received - start;
+        if (!result.isEmpty()) {
+          if (remaining != null && remaining.getAndDecrement() <= 0L) {
+            break;
+          }
+          K key = converter.extractKey(result);
+          V value = converter.extractValue(result);
+          statistics.serializationTime += System.nanoTime() - received;
+          statistics.bytes += StoreMetrics.size(result);
+          statistics.rows++;
+          clo.apply(key, value);
+        }
+        start = System.nanoTime();
+      }
+      return statistics;
+    } catch (IOException e) {
+      throw new CacheLoaderException("Failed to load cache from HBase", e);
     }
   }
 
   private Table table() throws IllegalStateException {
-    Table table = session.attachment();
-    checkState(table != null, "Table must not be null");
-    return table;
+    return tableSession().table();
+  }
+
+  private TableSession tableSession() throws IllegalStateException {
+    TableSession tableSession = session.attachment();
+    checkState(tableSession != null, "Table must not be null");
+    return tableSession;
+  }
+
+  private void put(Put put) {
+    try {
+      await(putAsync(put));
+    } catch (IOException | IllegalStateException e) {
+      throw new CacheWriterException("Failed to write key to HBase", e);
+    }
   }
 
   private void put(List<Put> puts) {
     try {
-      table().put(puts);
+      await(putAsync(puts));
     } catch (IOException | IllegalStateException e) {
       throw new CacheWriterException("Failed to write keys to HBase", e);
     }
   }
 
-  private List<Put> createPuts(Collection<Entry<? extends K, ? extends V>> entries) {
-    return entries.stream()
-        .map(this::createPut)
-        .collect(Collectors.toList());
+  private CompletableFuture<Void> putAsync(Put put) throws IOException {
+    Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+    if (coalescingBuffer.isPresent()) {
+      coalescingBuffer.get().mutate(session.cacheName(), Collections.singletonList(put));
+      return CompletableFuture.completedFuture(null);
+    }
+    Optional<SharedMutator> mutator = tableSession().mutator();
+    if (mutator.isPresent()) {
+      mutator.get().mutate(Collections.singletonList(put));
+      return CompletableFuture.completedFuture(null);
+    }
+    return submit(table -> {
+      table.put(put);
+      return null;
+    });
   }
 
-  private Put createPut(Entry<? extends K, ? extends V> entry) {
-    try {
-      Put put = new Put(keySerializer.serialize(entry.getKey()));
-      put.addColumn(family(), QUALIFIER, valueSerializer.serialize(entry.getValue()));
-      return put;
-    } catch (SerializationException e) {
-      throw new CacheWriterException("Failed to create put", e);
+  private CompletableFuture<Void> putAsync(List<Put> puts) throws IOException {
+    Optional<CoalescingBuffer> coalescingBuffer = tableSession().coalescingBuffer();
+    if (coalescingBuffer.isPresent()) {
+      coalescingBuffer.get().mutate(session.cacheName(), puts);
+      return CompletableFuture.completedFuture(null);
+    }
+    Optional<SharedMutator> mutator = tableSession().mutator();
+    if (mutator.isPresent()) {
+      // buffered by the mutator, which sends mutations asynchronously anyways
+      mutator.get().mutate(puts);
+      return CompletableFuture.completedFuture(null);
+    }
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (List<Put> batch : split(puts)) {
+      futures.add(submit(table -> {
+        table.put(batch);
+        return null;
+      }));
+    }
+    return allOf(futures);
+  }
+
+  /**
+   * Split mutations exceeding the {@link #setMaxBatchSize(int) maximum batch size} by region
+   * server.
+   */
+  private <M extends Mutation> List<List<M>> split(List<M> mutations) throws IOException {
+    BatchSplitter splitter = new BatchSplitter(maxBatchSize, maxBatchBytes);
+    if (!splitter.exceeds(mutations, Mutation::heapSize)) {
+      return Collections.singletonList(mutations);
+    }
+    try (RegionLocator locator = tableSession().regionLocator()) {
+      return splitter.split(mutations, Mutation::heapSize, locator).stream()
+          .map(batch -> BatchSplitter.select(mutations, batch))
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Run a request on the {@link #setIoThreads(int) I/O threads}. These borrow tables from the pool
+   * of the session as the table of the session must only be used by the thread owning it.
+   */
+  private <T> CompletableFuture<T> submit(TableRequest<T> request) throws IOException {
+    TableSession tableSession = tableSession();
+    AsyncExecutor executor = executor();
+    StoreMetrics storeMetrics = metrics();
+    CircuitBreaker circuitBreaker = circuitBreaker(tableSession.tableName(), storeMetrics);
+    long deadline = operationTimeout > 0L
+        ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(operationTimeout) : 0L;
+    if (executor.isDirect()) {
+      Table table = tableSession.table();
+      return executor.submit(
+          () -> send(request, table, circuitBreaker, deadline, storeMetrics));
     }
+    TablePool pool = tableSession.pool();
+    TableName tableName = tableSession.tableName();
+    return executor.submit(() -> {
+      Table table = pool.borrow(tableName);
+      try {
+        return send(request, table, circuitBreaker, deadline, storeMetrics);
+      } finally {
+        pool.release(table);
+      }
+    });
   }
 
+  /**
+   * Send a request, retrying failures with exponential backoff and full jitter until the {@link
+   * #setMaxRetries(int) maximum number of retries} or the deadline is reached.
+   *
+   * @param circuitBreaker circuit breaker of the table. May be null if disabled.
+   * @param deadline {@link System#nanoTime()} after which no retries are started. 0 if there is no
+   * deadline.
+   */
+  private <T> T send(TableRequest<T> request, Table table, CircuitBreaker circuitBreaker,
+      long deadline, StoreMetrics storeMetrics) throws IOException {
+    for (int attempt = 0; ; attempt++) {
+      CircuitBreaker.Permit permit =
+          circuitBreaker != null ? circuitBreaker.allowRequest() : CircuitBreaker.Permit.REQUEST;
+      if (permit == CircuitBreaker.Permit.DENIED) {
+        storeMetrics.addRejectedRequests(1L);
+        throw new CircuitBreaker.OpenException(
+            "Circuit breaker of table " + table.getName() + " is open");
+      }
+      IOException failure;
+      // whether the table responded, also if the request failed for reasons of its own
+      boolean responded = false;
+      try {
+        T result = request.send(table);
+        responded = true;
+        return result;
+      } catch (IOException e) {
+        failure = e;
+        responded = isRequestFailure(e);
+      } finally {
+        // recorded for errors as well to release a trial request of a half-open breaker
+        if (circuitBreaker != null) {
+          if (responded) {
+            circuitBreaker.recordSuccess(permit);
+          } else {
+            circuitBreaker.recordFailure(permit);
+          }
+        }
+      }
+      long backoff = TimeUnit.MILLISECONDS.toNanos(backoff(attempt));
+      if (attempt >= maxRetries || responded || failure instanceof InterruptedIOException
+          || deadline != 0L && System.nanoTime() + backoff - deadline > 0L) {
+        throw failure;
+      }
+      storeMetrics.addRetries(1L);
+      sleep(backoff);
+    }
+  }
+
+  /**
+   * Rows and times of one or more scans.
+   */
+  private static final class ScanStatistics {
+
+    private long rows;
+    private long bytes;
+    private long serializationTime;
+    private long hbaseTime;
+
+    private void add(ScanStatistics other) {
+      rows += other.rows;
+      bytes += other.bytes;
+      serializationTime += other.serializationTime;
+      hbaseTime += other.hbaseTime;
+    }
+  }
+
+  /**
+   * Request sent to HBase using a table.
+   */
+  @FunctionalInterface
+  private interface TableRequest<T> {
+
+    T send(Table table) throws IOException;
+  }
 }
@@ -0,0 +1,79 @@
+package com.bakdata.ignite.hbase;
+
+/**
+ * Statistics of an {@link HBaseCacheStore} for a single cache. Registered with the MBean server of
+ * the Ignite node under {@code com.bakdata.ignite.hbase:type=HBaseCacheStore,grid=<grid
+ * name>,cache=<cache name>}.
+ */
+public interface HBaseCacheStoreMXBean {
+
+  /**
+   * @return number of bytes of rows, columns and values read from HBase
+   */
+  long getBytesRead();
+
+  /**
+   * @return number of bytes of rows, columns and values written to HBase, including deletes
+   */
+  long getBytesWritten();
+
+  /**
+   * @return state of the circuit breaker guarding the HBase table, i.e., {@code CLOSED}, {@code
+   * OPEN}, {@code HALF_OPEN} or {@code DISABLED}
+   * @see HBaseCacheStore#setCircuitBreakerFailureRate(double)
+   */
+  String getCircuitBreakerState();
+
+  /**
+   * @return number of keys loaded by a get of another thread
+   * @see HBaseCacheStore#setCoalesceLoads(boolean)
+   */
+  long getCoalescedLoads();
+
+  /**
+   * @return statistics of {@link HBaseCacheStore#deleteAll(java.util.Collection)}, including
+   * single deletes
+   */
+  OperationStatistics getDeleteAll();
+
+  /**
+   * @return statistics of {@link HBaseCacheStore#loadAll(Iterable)}, including single loads
+   */
+  OperationStatistics getLoadAll();
+
+  /**
+   * @return statistics of {@link
+   * HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure, Object...)}. Batch sizes
+   * are the number of rows loaded by the local node.
+   */
+  OperationStatistics getLoadCache();
+
+  /**
+   * @return number of keys loaded without accessing HBase because they are known to be absent
+   * @see HBaseCacheStore#setNegativeCacheSize(long)
+   */
+  long getNegativeCacheHits();
+
+  /**
+   * @return number of requests rejected by the open circuit breaker
+   * @see HBaseCacheStore#setCircuitBreakerFailureRate(double)
+   */
+  long getRejectedRequests();
+
+  /**
+   * @return number of failed requests sent again
+   * @see HBaseCacheStore#setMaxRetries(int)
+   */
+  long getRetries();
+
+  /**
+   * @return statistics of {@link HBaseCacheStore#writeAll(java.util.Collection)}, including single
+   * writes
+   */
+  OperationStatistics getWriteAll();
+
+  /**
+   * Reset all statistics.
+   */
+  void resetStatistics();
+}
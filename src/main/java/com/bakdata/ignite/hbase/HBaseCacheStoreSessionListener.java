@@ -3,13 +3,18 @@ package com.bakdata.ignite.hbase;
 import com.bakdata.commons.HBaseUtil;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import javax.cache.CacheException;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.Table;
@@ -21,19 +26,42 @@ import org.apache.ignite.lifecycle.LifecycleAware;
 import org.apache.ignite.resources.LoggerResource;
 
 /**
- * CacheStoreSessionListener which injects {@link Table} into {@link HBaseCacheStore}.
+ * CacheStoreSessionListener which injects {@link Table} into {@link HBaseCacheStore}. The table is
+ * attached to the session wrapped in a {@link TableSession}.
  */
 public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener, LifecycleAware,
     Serializable {
 
   private static final long serialVersionUID = -4614910847286800963L;
+  private static final long DEFAULT_WRITE_BUFFER_FLUSH_INTERVAL = 1000L;
+  private static final int DEFAULT_MAX_INFLIGHT_WRITES = 8;
+  private static final long DEFAULT_COALESCING_MAX_AGE = 1000L;
+  private static final int DEFAULT_TABLE_POOL_SIZE = 32;
+  private static final long DEFAULT_TABLE_POOL_IDLE_TIMEOUT = 60_000L;
   private final Collection<String> ensuredColumnFamilies = new HashSet<>();
   private transient Connection conn;
+  private transient TablePool tablePool;
+  private transient SharedMutator mutator;
+  private transient CoalescingBuffer coalescingBuffer;
+  private transient int users;
 
   // not final due to serialization
   private String tableName;
   private String confPath;
   private Properties properties;
+  private boolean bufferedWrites;
+  private long writeBufferSize;
+  private long writeBufferFlushInterval = DEFAULT_WRITE_BUFFER_FLUSH_INTERVAL;
+  private int maxInflightWrites = DEFAULT_MAX_INFLIGHT_WRITES;
+  private boolean coalescingWrites;
+  private int coalescingMaxSize;
+  private long coalescingMaxBytes;
+  private long coalescingMaxAge = DEFAULT_COALESCING_MAX_AGE;
+  private int tablePoolSize = DEFAULT_TABLE_POOL_SIZE;
+  private long tablePoolIdleTimeout = DEFAULT_TABLE_POOL_IDLE_TIMEOUT;
+  private Map<String, ColumnFamilySpec> columnFamilySpecs = new HashMap<>();
+  private ColumnFamilySpec defaultColumnFamilySpec;
+  private List<byte[]> splitKeys;
 
   @LoggerResource
   private transient IgniteLogger logger;
@@ -52,6 +80,16 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
     this.tableName = tableName;
   }
 
+  /**
+   * Add settings of the column family created for a cache.
+   *
+   * @param cacheName name of the cache, which is also the name of its column family
+   * @param spec settings of the column family
+   */
+  public void addColumnFamilySpec(String cacheName, ColumnFamilySpec spec) {
+    columnFamilySpecs.put(cacheName, spec);
+  }
+
   /**
    * Add property to establish connection to HBase.
    *
@@ -67,11 +105,11 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
 
   @Override
   public void onSessionEnd(CacheStoreSession ses, boolean commit) {
-    Table table = ses.attach(null);
+    TableSession tableSession = ses.attach(null);
 
-    if (table != null) {
+    if (tableSession != null) {
       try {
-        table.close();
+        tableSession.close();
       } catch (IOException e) {
         String msg = "Failed to close table connection";
         logger.warning(msg, e);
@@ -87,8 +125,8 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
       String familyName = ses.cacheName();
       verifyIntegrity(familyName);
       try {
-        Table table = conn.getTable(TableName.valueOf(tableName));
-        ses.attach(table);
+        Table table = tablePool.borrow(TableName.valueOf(tableName));
+        ses.attach(new TableSession(tablePool, table, mutator, coalescingBuffer));
       } catch (IOException e) {
         logger.warning("Error preparing session", e);
         throw new CacheException(e);
@@ -96,6 +134,139 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
     }
   }
 
+  /**
+   * <p>Set whether writes and deletes are buffered in a {@link
+   * org.apache.hadoop.hbase.client.BufferedMutator} shared by all sessions instead of being sent to
+   * HBase synchronously. Buffered mutations are sent once the write buffer is full or the flush
+   * interval elapsed.</p>
+   *
+   * <p>Mutations failing in the background are reported as {@link
+   * javax.cache.integration.CacheWriterException} by the next write or delete. Buffered mutations
+   * are lost if the node crashes.</p>
+   *
+   * @param bufferedWrites whether to buffer writes
+   */
+  public void setBufferedWrites(boolean bufferedWrites) {
+    this.bufferedWrites = bufferedWrites;
+  }
+
+  /**
+   * <p>Set whether writes and deletes are coalesced in a buffer shared by all sessions. The buffer
+   * keeps only the latest put or delete of each key, so keys updated many times between flushes
+   * are written to HBase once. The buffer is flushed once it holds the {@link
+   * #setCoalescingMaxSize(int) maximum number of keys} or {@link #setCoalescingMaxBytes(long)
+   * bytes}, and periodically after the {@link #setCoalescingMaxAge(long) maximum age}. Cannot be
+   * combined with {@link #setBufferedWrites(boolean) buffered writes}.</p>
+   *
+   * <p>Buffered keys are flushed before they are loaded. Mutations failing to be sent stay
+   * buffered and are retried with the next flush. Failures are reported as {@link
+   * javax.cache.integration.CacheWriterException} by writes or deletes flushing the buffer and
+   * logged for periodic flushes. Buffered mutations are lost if the node crashes.</p>
+   *
+   * @param coalescingWrites whether to coalesce writes
+   */
+  public void setCoalescingWrites(boolean coalescingWrites) {
+    this.coalescingWrites = coalescingWrites;
+  }
+
+  /**
+   * Set interval to flush coalesced writes. Only applies if {@link #setCoalescingWrites(boolean)
+   * coalescing writes} is enabled. If not positive, the buffer is only flushed when full. Defaults
+   * to {@value #DEFAULT_COALESCING_MAX_AGE}ms.
+   *
+   * @param coalescingMaxAge interval in milliseconds
+   */
+  public void setCoalescingMaxAge(long coalescingMaxAge) {
+    this.coalescingMaxAge = coalescingMaxAge;
+  }
+
+  /**
+   * Set number of bytes of coalesced writes, estimated by their heap size, at which the buffer is
+   * flushed. Only applies if {@link #setCoalescingWrites(boolean) coalescing writes} is enabled.
+   * Unlimited by default.
+   *
+   * @param coalescingMaxBytes number of bytes
+   */
+  public void setCoalescingMaxBytes(long coalescingMaxBytes) {
+    this.coalescingMaxBytes = coalescingMaxBytes;
+  }
+
+  /**
+   * Set number of coalesced keys at which the buffer is flushed. Only applies if {@link
+   * #setCoalescingWrites(boolean) coalescing writes} is enabled. Unlimited by default.
+   *
+   * @param coalescingMaxSize number of keys
+   */
+  public void setCoalescingMaxSize(int coalescingMaxSize) {
+    this.coalescingMaxSize = coalescingMaxSize;
+  }
+
+  /**
+   * Set maximum number of concurrent RPCs sending buffered mutations to HBase. Only applies if
+   * {@link #setBufferedWrites(boolean) buffered writes} are enabled. Defaults to {@value
+   * #DEFAULT_MAX_INFLIGHT_WRITES}.
+   *
+   * @param maxInflightWrites number of RPCs
+   */
+  public void setMaxInflightWrites(int maxInflightWrites) {
+    this.maxInflightWrites = maxInflightWrites;
+  }
+
+  /**
+   * Set size of the write buffer in bytes. Only applies if {@link #setBufferedWrites(boolean)
+   * buffered writes} are enabled. Defaults to {@code hbase.client.write.buffer}.
+   *
+   * @param writeBufferSize number of bytes
+   */
+  public void setWriteBufferSize(long writeBufferSize) {
+    this.writeBufferSize = writeBufferSize;
+  }
+
+  /**
+   * Set interval to flush the write buffer periodically. Only applies if {@link
+   * #setBufferedWrites(boolean) buffered writes} are enabled. If not positive, the buffer is only
+   * flushed when full. Defaults to {@value #DEFAULT_WRITE_BUFFER_FLUSH_INTERVAL}ms.
+   *
+   * @param writeBufferFlushInterval interval in milliseconds
+   */
+  public void setWriteBufferFlushInterval(long writeBufferFlushInterval) {
+    this.writeBufferFlushInterval = writeBufferFlushInterval;
+  }
+
+  /**
+   * Set settings of the column families created for caches. Caches without settings use the
+   * {@link #setDefaultColumnFamilySpec(ColumnFamilySpec) default settings}.
+   *
+   * @param columnFamilySpecs settings by name of cache
+   */
+  public void setColumnFamilySpecs(Map<String, ColumnFamilySpec> columnFamilySpecs) {
+    this.columnFamilySpecs = new HashMap<>(columnFamilySpecs);
+  }
+
+  /**
+   * Set settings of column families created for caches without their own settings. If not set,
+   * column families are created with the HBase defaults.
+   *
+   * @param defaultColumnFamilySpec settings of column families
+   */
+  public void setDefaultColumnFamilySpec(ColumnFamilySpec defaultColumnFamilySpec) {
+    this.defaultColumnFamilySpec = defaultColumnFamilySpec;
+  }
+
+  /**
+   * <p>Set start keys of all but the first region of the table if it is created. A pre-split table
+   * spreads writes and reads across region servers from the start instead of growing out of a
+   * single hot region. If not set, the table is created with a single region.</p>
+   *
+   * <p>Split keys must match the row keys written by the stores, e.g., {@link
+   * HBaseCacheStore#partitionSplitKeys(int, int)} for partition aware stores.</p>
+   *
+   * @param splitKeys row keys to split at
+   */
+  public void setSplitKeys(List<byte[]> splitKeys) {
+    this.splitKeys = new ArrayList<>(splitKeys);
+  }
+
   /**
    * Set path to HBase configuration file to establish a connection to HBase. Path must be valid for
    * every worker. All valid hadoop paths are allowed.
@@ -115,23 +286,122 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
     this.properties = properties;
   }
 
+  /**
+   * Set maximum number of idle {@link Table} handles kept for reuse by later sessions. Sessions
+   * borrow tables from the pool instead of creating and closing a table each time. If not positive,
+   * tables are not pooled. Defaults to {@value #DEFAULT_TABLE_POOL_SIZE}.
+   *
+   * @param tablePoolSize number of tables
+   */
+  public void setTablePoolSize(int tablePoolSize) {
+    this.tablePoolSize = tablePoolSize;
+  }
+
+  /**
+   * Set time after which idle {@link Table} handles are closed. Defaults to {@value
+   * #DEFAULT_TABLE_POOL_IDLE_TIMEOUT}ms.
+   *
+   * @param tablePoolIdleTimeout time in milliseconds
+   */
+  public void setTablePoolIdleTimeout(long tablePoolIdleTimeout) {
+    this.tablePoolIdleTimeout = tablePoolIdleTimeout;
+  }
+
   public void setTableName(String tableName) {
     this.tableName = tableName;
   }
 
+  /**
+   * <p>Connects to HBase.</p>
+   *
+   * <p>The listener may be shared by several caches, e.g., when created by a singleton factory.
+   * Resources are therefore only created by the first call and released by the last call to {@link
+   * #stop()}.</p>
+   */
   @Override
-  public void start() throws IgniteException {
-    if (conn == null) {
-      try {
-        conn = HBaseUtil.createConnection(createConfig());
-      } catch (IOException e) {
-        throw new IgniteException(e);
+  public synchronized void start() throws IgniteException {
+    if (bufferedWrites && coalescingWrites) {
+      throw new IgniteException("Buffered writes cannot be combined with coalescing writes");
+    }
+    if (users++ > 0) {
+      return;
+    }
+    try {
+      conn = HBaseUtil.createConnection(createConfig());
+      tablePool = new TablePool(conn, tablePoolSize, tablePoolIdleTimeout);
+      if (bufferedWrites && tableName != null) {
+        mutator = SharedMutator.create(conn, TableName.valueOf(tableName), writeBufferSize,
+            writeBufferFlushInterval, maxInflightWrites);
+      }
+      if (coalescingWrites && tableName != null) {
+        coalescingBuffer = CoalescingBuffer.create(conn, TableName.valueOf(tableName),
+            coalescingMaxSize, coalescingMaxBytes, coalescingMaxAge);
       }
+    } catch (IOException e) {
+      users--;
+      closeConnection();
+      throw new IgniteException(e);
     }
   }
 
   @Override
-  public void stop() throws IgniteException {
+  public synchronized void stop() throws IgniteException {
+    if (users == 0 || --users > 0) {
+      return;
+    }
+    try {
+      closeCoalescingBuffer();
+    } finally {
+      try {
+        closeMutator();
+      } finally {
+        closeTablePool();
+        closeConnection();
+      }
+    }
+  }
+
+  private void closeCoalescingBuffer() {
+    if (coalescingBuffer == null) {
+      return;
+    }
+    try {
+      coalescingBuffer.close();
+    } catch (IOException e) {
+      logger.error("Failed to flush coalesced mutations to HBase", e);
+      throw new IgniteException(e);
+    } finally {
+      coalescingBuffer = null;
+    }
+  }
+
+  private void closeMutator() {
+    if (mutator == null) {
+      return;
+    }
+    try {
+      mutator.close();
+    } catch (IOException e) {
+      logger.error("Failed to flush buffered mutations to HBase", e);
+      throw new IgniteException(e);
+    } finally {
+      mutator = null;
+    }
+  }
+
+  private void closeTablePool() {
+    try {
+      if (tablePool != null) {
+        tablePool.close();
+      }
+    } catch (IOException e) {
+      logger.warning("Failed to close pooled tables", e);
+    } finally {
+      tablePool = null;
+    }
+  }
+
+  private void closeConnection() throws IgniteException {
     try {
       if (conn != null && !conn.isClosed()) {
         conn.close();
@@ -139,6 +409,8 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
     } catch (IOException e) {
       logger.error("Failed to close HBase connection", e);
       throw new IgniteException(e);
+    } finally {
+      conn = null;
     }
   }
 
@@ -164,6 +436,11 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
     }
   }
 
+  private HColumnDescriptor createColumnFamilyDescriptor(String familyName) {
+    ColumnFamilySpec spec = columnFamilySpecs.getOrDefault(familyName, defaultColumnFamilySpec);
+    return spec != null ? spec.createDescriptor(familyName) : new HColumnDescriptor(familyName);
+  }
+
   private void verifyIntegrity(String familyName) throws CacheException {
     if (tableName == null) {
       String msg = "TableName must not be null";
@@ -172,7 +449,9 @@ public class HBaseCacheStoreSessionListener implements CacheStoreSessionListener
     }
     if (!ensuredColumnFamilies.contains(familyName)) {
       try {
-        HBaseUtil.ensureTableAndColumnFamilyExist(conn, tableName, familyName);
+        HBaseUtil.ensureTableAndColumnFamilyExist(conn, tableName,
+            createColumnFamilyDescriptor(familyName),
+            splitKeys != null ? splitKeys.toArray(new byte[0][]) : null);
         ensuredColumnFamilies.add(familyName);
       } catch (IOException e) {
         logger.warning(
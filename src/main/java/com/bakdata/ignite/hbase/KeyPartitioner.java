@@ -0,0 +1,45 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.cache.affinity.AffinityFunction;
+import org.apache.ignite.cache.affinity.AffinityKeyMapper;
+import org.apache.ignite.configuration.CacheConfiguration;
+
+/**
+ * Maps keys to Ignite partitions without going through the public affinity API, which is not
+ * available anymore while a node is stopping. Write-behind stores are flushed in that state.
+ */
+final class KeyPartitioner {
+
+  private final AffinityFunction function;
+  private final AffinityKeyMapper mapper;
+
+  private KeyPartitioner(AffinityFunction function, AffinityKeyMapper mapper) {
+    this.function = function;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Resolve the affinity configuration of a cache. The node must be running.
+   *
+   * @param ignite local node
+   * @param cacheName cache to resolve affinity configuration for
+   * @return partitioner for the cache
+   */
+  static KeyPartitioner create(Ignite ignite, String cacheName) {
+    @SuppressWarnings("unchecked")
+    CacheConfiguration<?, ?> config = ignite.cache(cacheName)
+        .getConfiguration(CacheConfiguration.class);
+    AffinityFunction function = config.getAffinity();
+    AffinityKeyMapper mapper = config.getAffinityMapper();
+    checkState(function != null && mapper != null,
+        "Affinity of cache %s is not initialized", cacheName);
+    return new KeyPartitioner(function, mapper);
+  }
+
+  int partition(Object key) {
+    return function.partition(mapper.affinityKey(key));
+  }
+}
@@ -0,0 +1,37 @@
+package com.bakdata.ignite.hbase;
+
+import java.io.Serializable;
+
+/**
+ * <p>Restricts {@link HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure,
+ * Object...)} to keys whose serialized form starts with the serialized prefix. The scan starts at
+ * the first such row and stops after the last one instead of scanning the whole table.</p>
+ *
+ * <p>For composite keys, pass the leading components, e.g., the first component of keys serialized
+ * by {@link com.bakdata.commons.serialization.CompositeSerializer}. If row keys are prefixed by
+ * partition or salt bucket, the prefix is scanned within each partition or bucket.</p>
+ *
+ * @param <K> type of keys
+ */
+public final class KeyPrefix<K> implements ScanArgument, Serializable {
+
+  private static final long serialVersionUID = -3206542171380905284L;
+  private final K prefix;
+
+  private KeyPrefix(K prefix) {
+    this.prefix = prefix;
+  }
+
+  /**
+   * @param prefix key or partial key whose serialized form all loaded keys start with
+   * @param <K> type of keys
+   * @return prefix of keys
+   */
+  public static <K> KeyPrefix<K> of(K prefix) {
+    return new KeyPrefix<>(prefix);
+  }
+
+  public K getPrefix() {
+    return prefix;
+  }
+}
@@ -0,0 +1,47 @@
+package com.bakdata.ignite.hbase;
+
+import java.io.Serializable;
+
+/**
+ * <p>Restricts {@link HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure,
+ * Object...)} to an interval of keys. Only rows within the interval are scanned instead of the
+ * whole table.</p>
+ *
+ * <p>Rows are ordered by their serialized keys. The interval therefore only corresponds to the
+ * order of keys if the key serializer is order-preserving, e.g., {@link
+ * com.bakdata.commons.serialization.OrderedLongSerializer}. If row keys are prefixed by partition
+ * or salt bucket, the interval is scanned within each partition or bucket.</p>
+ *
+ * @param <K> type of keys
+ */
+public final class KeyRange<K> implements ScanArgument, Serializable {
+
+  private static final long serialVersionUID = 3452071598614326418L;
+  private final K start;
+  private final K stop;
+
+  private KeyRange(K start, K stop) {
+    this.start = start;
+    this.stop = stop;
+  }
+
+  /**
+   * @param start first key of the interval, inclusive. May be null if the interval is not bounded
+   * below.
+   * @param stop last key of the interval, exclusive. May be null if the interval is not bounded
+   * above.
+   * @param <K> type of keys
+   * @return interval of keys
+   */
+  public static <K> KeyRange<K> of(K start, K stop) {
+    return new KeyRange<>(start, stop);
+  }
+
+  public K getStart() {
+    return start;
+  }
+
+  public K getStop() {
+    return stop;
+  }
+}
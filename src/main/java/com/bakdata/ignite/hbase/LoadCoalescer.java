@@ -0,0 +1,148 @@
+package com.bakdata.ignite.hbase;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import javax.cache.integration.CacheLoaderException;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Shares in-flight gets of a single cache between threads. A thread loading a row which is
+ * already requested by another thread waits for that request instead of sending its own.
+ *
+ * <p>If a batch window is set, single gets are additionally delayed for the window and merged into
+ * one multi-get. The first thread arriving in a window sends the merged get using its own table,
+ * all others wait for it.</p>
+ *
+ * <p>Threads send their own rows before waiting for rows of other threads. Hence, threads never
+ * wait for each other in a cycle.</p>
+ */
+final class LoadCoalescer {
+
+  private final ConcurrentMap<ByteBuffer, CompletableFuture<Result>> inflight =
+      new ConcurrentHashMap<>();
+  // guarded by itself
+  private final List<Flight> pending = new ArrayList<>();
+  private final long batchWindow;
+  private final StoreMetrics metrics;
+
+  /**
+   * @param batchWindow time in nanoseconds to delay single gets for merging. If not positive,
+   * single gets are not merged.
+   * @param metrics metrics to count coalesced gets in
+   */
+  LoadCoalescer(long batchWindow, StoreMetrics metrics) {
+    this.batchWindow = batchWindow;
+    this.metrics = metrics;
+  }
+
+  private static Result join(CompletableFuture<Result> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheLoaderException("Interrupted while loading keys from HBase", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof CacheLoaderException) {
+        throw (CacheLoaderException) cause;
+      }
+      throw new CacheLoaderException("Failed to load keys from HBase", cause);
+    }
+  }
+
+  private static ByteBuffer key(Get get) {
+    return ByteBuffer.wrap(get.getRow());
+  }
+
+  /**
+   * Get rows, sharing requests with concurrent callers.
+   *
+   * @param gets gets to send. All gets must request the same columns.
+   * @param fetch sends gets to HBase using a table of the calling thread
+   * @return results in the order of {@code gets}
+   * @throws CacheLoaderException if a get fails
+   */
+  Result[] get(List<Get> gets, Function<List<Get>, Result[]> fetch) {
+    List<CompletableFuture<Result>> futures = new ArrayList<>(gets.size());
+    List<Flight> owned = new ArrayList<>(gets.size());
+    for (Get get : gets) {
+      CompletableFuture<Result> future = new CompletableFuture<>();
+      CompletableFuture<Result> existing = inflight.putIfAbsent(key(get), future);
+      if (existing == null) {
+        owned.add(new Flight(get, future));
+        futures.add(future);
+      } else {
+        futures.add(existing);
+      }
+    }
+    metrics.addCoalescedLoads(gets.size() - owned.size());
+    if (owned.size() == 1 && gets.size() == 1 && batchWindow > 0L) {
+      batch(owned.get(0), fetch);
+    } else if (!owned.isEmpty()) {
+      send(owned, fetch);
+    }
+    Result[] results = new Result[futures.size()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = join(futures.get(i));
+    }
+    return results;
+  }
+
+  private void batch(Flight flight, Function<List<Get>, Result[]> fetch) {
+    boolean leader;
+    synchronized (pending) {
+      leader = pending.isEmpty();
+      pending.add(flight);
+    }
+    if (!leader) {
+      metrics.addCoalescedLoads(1L);
+      return;
+    }
+    LockSupport.parkNanos(batchWindow);
+    List<Flight> flights;
+    synchronized (pending) {
+      flights = new ArrayList<>(pending);
+      pending.clear();
+    }
+    send(flights, fetch);
+  }
+
+  private void send(List<Flight> flights, Function<List<Get>, Result[]> fetch) {
+    List<Get> gets = new ArrayList<>(flights.size());
+    flights.forEach(flight -> gets.add(flight.get));
+    try {
+      Result[] results = fetch.apply(gets);
+      for (int i = 0; i < results.length; i++) {
+        Flight flight = flights.get(i);
+        // later callers send a new get instead of joining a completed one
+        inflight.remove(key(flight.get), flight.future);
+        flight.future.complete(results[i]);
+      }
+    } catch (RuntimeException e) {
+      // reported to all waiting threads including this one
+      for (Flight flight : flights) {
+        inflight.remove(key(flight.get), flight.future);
+        flight.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static final class Flight {
+
+    private final Get get;
+    private final CompletableFuture<Result> future;
+
+    private Flight(Get get, CompletableFuture<Result> future) {
+      this.get = get;
+      this.future = future;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.bakdata.ignite.hbase;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.hbase.client.Row;
+
+/**
+ * Bounded set of row keys recently found to be absent in HBase. Entries expire after a fixed time
+ * to pick up rows written by other clients. Writes through the store invalidate their rows.
+ *
+ * <p>Loads race with writes of the same rows: a load may miss a row which is written before the
+ * miss is recorded. Therefore, every invalidation increments a version. Misses are recorded
+ * optimistically and removed again if the version changed since the load was started. The version
+ * is incremented before rows are forgotten, so that a miss recorded in between is either forgotten
+ * or detected by its loader.</p>
+ */
+final class NegativeCache {
+
+  private static final Object ABSENT = Boolean.TRUE;
+  private final Cache<ByteBuffer, Object> absentRows;
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * @param maxSize maximum number of row keys to remember
+   * @param ttl time in milliseconds after which a row key is forgotten
+   */
+  NegativeCache(long maxSize, long ttl) {
+    this.absentRows = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  private static ByteBuffer key(Row row) {
+    return ByteBuffer.wrap(row.getRow());
+  }
+
+  /**
+   * Record a row found to be absent by a load.
+   *
+   * @param row absent row
+   * @param since {@link #version()} before the load was sent to HBase
+   */
+  void addAbsent(Row row, long since) {
+    ByteBuffer key = key(row);
+    absentRows.put(key, ABSENT);
+    if (version.get() != since) {
+      // row might have been written concurrently
+      absentRows.invalidate(key);
+    }
+  }
+
+  /**
+   * Record rows found to be absent by a load.
+   *
+   * @param rows absent rows
+   * @param since {@link #version()} before the load was sent to HBase
+   */
+  void addAbsent(List<? extends Row> rows, long since) {
+    for (Row row : rows) {
+      absentRows.put(key(row), ABSENT);
+    }
+    if (version.get() != since) {
+      // rows might have been written concurrently
+      for (Row row : rows) {
+        absentRows.invalidate(key(row));
+      }
+    }
+  }
+
+  /**
+   * Forget a row because it is written. Must be called after the row was sent to HBase.
+   *
+   * @param row written row
+   */
+  void invalidate(Row row) {
+    version.incrementAndGet();
+    absentRows.invalidate(key(row));
+  }
+
+  /**
+   * Forget rows because they are written. Must be called after the rows were sent to HBase.
+   *
+   * @param rows written rows
+   */
+  void invalidate(List<? extends Row> rows) {
+    version.incrementAndGet();
+    for (Row row : rows) {
+      absentRows.invalidate(key(row));
+    }
+  }
+
+  boolean isAbsent(Row row) {
+    return absentRows.getIfPresent(key(row)) != null;
+  }
+
+  long version() {
+    return version.get();
+  }
+}
@@ -0,0 +1,49 @@
+package com.bakdata.ignite.hbase;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies, batch sizes and errors of one operation of {@link HBaseCacheStore}.
+ */
+final class OperationMetrics {
+
+  private final Histogram latency = new Histogram();
+  private final Histogram batchSize = new Histogram();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder serializationTime = new LongAdder();
+  private final LongAdder hbaseTime = new LongAdder();
+
+  void error() {
+    errors.increment();
+  }
+
+  /**
+   * Record a successful operation.
+   *
+   * @param size number of entries processed
+   * @param time latency in nanoseconds
+   * @param serialization time in nanoseconds spent converting entries and results
+   * @param hbase time in nanoseconds spent waiting for HBase
+   */
+  void record(int size, long time, long serialization, long hbase) {
+    latency.record(time);
+    batchSize.record(size);
+    serializationTime.add(serialization);
+    hbaseTime.add(hbase);
+  }
+
+  void reset() {
+    latency.reset();
+    batchSize.reset();
+    errors.reset();
+    serializationTime.reset();
+    hbaseTime.reset();
+  }
+
+  OperationStatistics snapshot() {
+    return new OperationStatistics(latency.count(), errors.sum(), latency.mean(),
+        latency.quantile(0.5), latency.quantile(0.99), latency.quantile(0.999), latency.max(),
+        batchSize.mean(), batchSize.quantile(0.99), batchSize.max(), serializationTime.sum(),
+        hbaseTime.sum());
+  }
+}
@@ -0,0 +1,127 @@
+package com.bakdata.ignite.hbase;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Statistics of one operation of {@link HBaseCacheStore} since the store has been started or its
+ * statistics have been reset. Times are in nanoseconds.
+ */
+public final class OperationStatistics {
+
+  private final long count;
+  private final long errors;
+  private final double latencyMean;
+  private final long latencyP50;
+  private final long latencyP99;
+  private final long latencyP999;
+  private final long latencyMax;
+  private final double batchSizeMean;
+  private final long batchSizeP99;
+  private final long batchSizeMax;
+  private final long serializationTime;
+  private final long hbaseTime;
+
+  @ConstructorProperties({"count", "errors", "latencyMean", "latencyP50", "latencyP99",
+      "latencyP999", "latencyMax", "batchSizeMean", "batchSizeP99", "batchSizeMax",
+      "serializationTime", "hbaseTime"})
+  public OperationStatistics(long count, long errors, double latencyMean, long latencyP50,
+      long latencyP99, long latencyP999, long latencyMax, double batchSizeMean, long batchSizeP99,
+      long batchSizeMax, long serializationTime, long hbaseTime) {
+    this.count = count;
+    this.errors = errors;
+    this.latencyMean = latencyMean;
+    this.latencyP50 = latencyP50;
+    this.latencyP99 = latencyP99;
+    this.latencyP999 = latencyP999;
+    this.latencyMax = latencyMax;
+    this.batchSizeMean = batchSizeMean;
+    this.batchSizeP99 = batchSizeP99;
+    this.batchSizeMax = batchSizeMax;
+    this.serializationTime = serializationTime;
+    this.hbaseTime = hbaseTime;
+  }
+
+  /**
+   * @return largest number of entries processed by one operation
+   */
+  public long getBatchSizeMax() {
+    return batchSizeMax;
+  }
+
+  /**
+   * @return average number of entries processed by one operation
+   */
+  public double getBatchSizeMean() {
+    return batchSizeMean;
+  }
+
+  /**
+   * @return 99th percentile of the number of entries processed by one operation
+   */
+  public long getBatchSizeP99() {
+    return batchSizeP99;
+  }
+
+  /**
+   * @return number of successful operations
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return number of failed operations
+   */
+  public long getErrors() {
+    return errors;
+  }
+
+  /**
+   * @return accumulated time spent waiting for HBase
+   */
+  public long getHbaseTime() {
+    return hbaseTime;
+  }
+
+  /**
+   * @return largest latency
+   */
+  public long getLatencyMax() {
+    return latencyMax;
+  }
+
+  /**
+   * @return average latency
+   */
+  public double getLatencyMean() {
+    return latencyMean;
+  }
+
+  /**
+   * @return median latency
+   */
+  public long getLatencyP50() {
+    return latencyP50;
+  }
+
+  /**
+   * @return 99th percentile of latencies
+   */
+  public long getLatencyP99() {
+    return latencyP99;
+  }
+
+  /**
+   * @return 99.9th percentile of latencies
+   */
+  public long getLatencyP999() {
+    return latencyP999;
+  }
+
+  /**
+   * @return accumulated time spent converting entries to HBase operations and results to entries
+   */
+  public long getSerializationTime() {
+    return serializationTime;
+  }
+}
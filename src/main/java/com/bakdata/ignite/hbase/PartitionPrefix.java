@@ -0,0 +1,45 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Prefixes row keys with the Ignite partition of the key, encoded in two bytes. Rows of the same
+ * partition are therefore stored next to each other and can be scanned by range.
+ */
+final class PartitionPrefix implements RowKeyPrefix {
+
+  static final int MAX_PARTITION = 0xFFFF;
+  private static final int LENGTH = 2;
+  private final KeyPartitioner partitioner;
+
+  PartitionPrefix(KeyPartitioner partitioner) {
+    this.partitioner = partitioner;
+  }
+
+  /**
+   * @param partition Ignite partition
+   * @return first row key of the partition
+   */
+  static byte[] of(int partition) {
+    byte[] prefix = new byte[LENGTH];
+    write(partition, prefix);
+    return prefix;
+  }
+
+  private static void write(int partition, byte[] row) {
+    checkArgument(partition <= MAX_PARTITION,
+        "Partition aware stores support at most %s partitions", MAX_PARTITION + 1);
+    row[0] = (byte) (partition >>> 8);
+    row[1] = (byte) partition;
+  }
+
+  @Override
+  public int length() {
+    return LENGTH;
+  }
+
+  @Override
+  public void write(Object key, byte[] row) {
+    write(partitioner.partition(key), row);
+  }
+}
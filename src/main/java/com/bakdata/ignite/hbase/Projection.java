@@ -0,0 +1,37 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Restricts {@link HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure, Object...)}
+ * to a subset of the fields of a {@link FieldMapping}. Only the columns of these fields are
+ * transferred from HBase. The other fields of loaded values are not set.
+ */
+public final class Projection implements ScanArgument, Serializable {
+
+  private static final long serialVersionUID = -2875164379028518217L;
+  private final Set<String> fields;
+
+  private Projection(Set<String> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * @param fields names of fields to load
+   * @return projection to the fields
+   */
+  public static Projection of(String... fields) {
+    checkArgument(fields.length > 0, "Projection must contain at least one field");
+    return new Projection(Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(fields))));
+  }
+
+  public Set<String> getFields() {
+    return fields;
+  }
+}
@@ -0,0 +1,225 @@
+package com.bakdata.ignite.hbase;
+
+import com.bakdata.commons.serialization.SerializationException;
+import com.bakdata.commons.serialization.Serializer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.cache.Cache.Entry;
+import javax.cache.CacheException;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriterException;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+
+/**
+ * Converts entries of a single cache to HBase operations and HBase results back to entries. The
+ * column family is encoded once per cache rather than once per operation.
+ *
+ * @param <K> type of keys stored in the cache
+ * @param <V> type of values stored in the cache
+ */
+final class RowConverter<K, V> {
+
+  private final byte[] family;
+  private final Serializer<K> keySerializer;
+  private final ValueMapper<V> valueMapper;
+  private final List<byte[]> qualifiers;
+  private final RowKeyPrefix prefix;
+
+  /**
+   * @param cacheName name of the cache which is used as column family
+   * @param keySerializer serializer to use for keys
+   * @param valueMapper mapper of values to columns
+   * @param prefix prefix of row keys. May be null if row keys are not prefixed.
+   */
+  RowConverter(String cacheName, Serializer<K> keySerializer, ValueMapper<V> valueMapper,
+      RowKeyPrefix prefix) {
+    this.family = cacheName.getBytes();
+    this.keySerializer = keySerializer;
+    this.valueMapper = valueMapper;
+    this.qualifiers = valueMapper.qualifiers(null);
+    this.prefix = prefix;
+  }
+
+  /**
+   * @param cacheName name of the cache which is used as column family
+   * @param keySerializer serializer to use for keys
+   * @param valueSerializer serializer to use for values, which are stored in a single column
+   * @param prefix prefix of row keys. May be null if row keys are not prefixed.
+   */
+  RowConverter(String cacheName, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+      RowKeyPrefix prefix) {
+    this(cacheName, keySerializer, new BlobValueMapper<>(valueSerializer), prefix);
+  }
+
+  private static <T> Stream<T> stream(Iterable<T> iterable) {
+    return StreamSupport.stream(iterable.spliterator(), false);
+  }
+
+  /**
+   * Restrict a scan to the columns written by this converter.
+   *
+   * @param scan scan to restrict
+   * @param projection fields to scan or null to scan all columns
+   * @return number of columns scanned per row
+   * @throws IllegalArgumentException if the projection cannot be applied
+   */
+  int addColumns(Scan scan, Projection projection) {
+    List<byte[]> columns = projection == null ? qualifiers : valueMapper.qualifiers(projection);
+    columns.forEach(qualifier -> scan.addColumn(family, qualifier));
+    return columns.size();
+  }
+
+  Delete createDelete(Object key) {
+    try {
+      @SuppressWarnings("unchecked")
+      Delete delete = new Delete(rowKey((K) key));
+      qualifiers.forEach(qualifier -> delete.addColumns(family, qualifier));
+      return delete;
+    } catch (ClassCastException | SerializationException e) {
+      throw new CacheWriterException("Failed to create delete", e);
+    }
+  }
+
+  List<Delete> createDeletes(Collection<?> keys) {
+    return keys.stream()
+        .map(this::createDelete)
+        .collect(Collectors.toList());
+  }
+
+  Get createGet(K key) {
+    try {
+      Get get = new Get(rowKey(key));
+      qualifiers.forEach(qualifier -> get.addColumn(family, qualifier));
+      return get;
+    } catch (SerializationException e) {
+      throw new CacheLoaderException("Failed to create get", e);
+    }
+  }
+
+  List<Get> createGets(Iterable<? extends K> keys) {
+    return stream(keys)
+        .map(this::createGet)
+        .collect(Collectors.toList());
+  }
+
+  Put createPut(Entry<? extends K, ? extends V> entry) {
+    try {
+      Put put = new Put(rowKey(entry.getKey()));
+      valueMapper.addValue(put, family, entry.getValue());
+      return put;
+    } catch (SerializationException e) {
+      throw new CacheWriterException("Failed to create put", e);
+    }
+  }
+
+  List<Put> createPuts(Collection<Entry<? extends K, ? extends V>> entries) {
+    return entries.stream()
+        .map(this::createPut)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Deserialize the key of a non-empty result. The row is read from the backing array of its first
+   * cell without copying.
+   */
+  K extractKey(Result result) {
+    Cell cell = result.rawCells()[0];
+    int prefixLength = prefix != null ? prefix.length() : 0;
+    try {
+      return keySerializer.deserialize(cell.getRowArray(), cell.getRowOffset() + prefixLength,
+          cell.getRowLength() - prefixLength);
+    } catch (SerializationException e) {
+      throw new CacheException("Error deserializing key", e);
+    }
+  }
+
+  V extractValue(Result result) {
+    try {
+      return valueMapper.extractValue(result, family);
+    } catch (SerializationException e) {
+      throw new CacheException("Error deserializing value", e);
+    }
+  }
+
+  /**
+   * Serialize a key prefix without row key prefix to the range of all keys starting with it.
+   *
+   * @param keyPrefix prefix of keys
+   * @return range of serialized keys
+   * @throws CacheLoaderException if the prefix cannot be serialized
+   */
+  @SuppressWarnings("unchecked")
+  KeyRange<byte[]> serializeKeyPrefix(KeyPrefix<?> keyPrefix) {
+    try {
+      byte[] start = keySerializer.serialize((K) keyPrefix.getPrefix());
+      // first row not starting with the prefix
+      int length = start.length;
+      while (length > 0 && start[length - 1] == (byte) 0xFF) {
+        length--;
+      }
+      byte[] stop = null;
+      if (length > 0) {
+        stop = Arrays.copyOf(start, length);
+        stop[length - 1]++;
+      }
+      return KeyRange.of(start.length > 0 ? start : null, stop);
+    } catch (ClassCastException | SerializationException e) {
+      throw new CacheLoaderException("Failed to serialize key prefix", e);
+    }
+  }
+
+  /**
+   * Serialize the bounds of a key range without prefix.
+   *
+   * @param range range of keys
+   * @return range of serialized keys
+   * @throws CacheLoaderException if a bound cannot be serialized
+   */
+  @SuppressWarnings("unchecked")
+  KeyRange<byte[]> serializeKeyRange(KeyRange<?> range) {
+    try {
+      K start = (K) range.getStart();
+      K stop = (K) range.getStop();
+      return KeyRange.of(start != null ? keySerializer.serialize(start) : null,
+          stop != null ? keySerializer.serialize(stop) : null);
+    } catch (ClassCastException | SerializationException e) {
+      throw new CacheLoaderException("Failed to serialize key range", e);
+    }
+  }
+
+  Map<K, V> resultsToMap(Iterable<Result> results) {
+    return stream(results)
+        .filter(result -> !result.isEmpty())
+        .collect(Collectors.toMap(this::extractKey, this::extractValue));
+  }
+
+  private byte[] rowKey(K key) throws SerializationException {
+    if (prefix == null) {
+      return keySerializer.serialize(key);
+    }
+    int prefixLength = prefix.length();
+    int size = keySerializer.serializedSize(key);
+    byte[] row;
+    if (size == Serializer.UNKNOWN_SIZE) {
+      byte[] bytes = keySerializer.serialize(key);
+      row = new byte[prefixLength + bytes.length];
+      System.arraycopy(bytes, 0, row, prefixLength, bytes.length);
+    } else {
+      // serialize directly behind the prefix instead of concatenating
+      row = new byte[prefixLength + size];
+      keySerializer.serialize(key, row, prefixLength);
+    }
+    prefix.write(key, row);
+    return row;
+  }
+}
@@ -0,0 +1,21 @@
+package com.bakdata.ignite.hbase;
+
+/**
+ * Prefix of row keys derived from the key of an entry. Prefixed row keys group rows by Ignite
+ * partition or spread them across regions.
+ */
+interface RowKeyPrefix {
+
+  /**
+   * @return number of bytes of the prefix
+   */
+  int length();
+
+  /**
+   * Write the prefix of a row key.
+   *
+   * @param key key of the entry
+   * @param row row key, which already contains the serialized key behind the prefix
+   */
+  void write(Object key, byte[] row);
+}
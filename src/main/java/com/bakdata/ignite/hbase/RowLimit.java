@@ -0,0 +1,33 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Serializable;
+
+/**
+ * Restricts {@link HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure,
+ * Object...)} to a maximum number of rows per node. Scans stop once the limit has been reached.
+ * Which rows are loaded is undefined if regions are scanned in parallel.
+ */
+public final class RowLimit implements ScanArgument, Serializable {
+
+  private static final long serialVersionUID = 5170384719250146952L;
+  private final long maxRows;
+
+  private RowLimit(long maxRows) {
+    this.maxRows = maxRows;
+  }
+
+  /**
+   * @param maxRows maximum number of rows loaded by each node
+   * @return limit of rows
+   */
+  public static RowLimit of(long maxRows) {
+    checkArgument(maxRows > 0L, "Maximum number of rows must be positive but is %s", maxRows);
+    return new RowLimit(maxRows);
+  }
+
+  public long getMaxRows() {
+    return maxRows;
+  }
+}
@@ -0,0 +1,51 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Prefixes row keys with a bucket derived from the hash of the serialized key. Consecutive keys,
+ * e.g., monotonically increasing numbers, are spread across buckets and thus across regions split
+ * by bucket.
+ *
+ * <p>The hash must never change as it determines the row key of existing rows.</p>
+ */
+final class SaltPrefix implements RowKeyPrefix {
+
+  static final int MAX_BUCKETS = 256;
+  private static final int LENGTH = 1;
+  private final int buckets;
+
+  /**
+   * @param buckets number of buckets
+   */
+  SaltPrefix(int buckets) {
+    checkArgument(buckets > 0 && buckets <= MAX_BUCKETS,
+        "Number of salt buckets must be between 1 and %s", MAX_BUCKETS);
+    this.buckets = buckets;
+  }
+
+  /**
+   * @param bucket salt bucket
+   * @return first row key of the bucket
+   */
+  static byte[] of(int bucket) {
+    return new byte[]{(byte) bucket};
+  }
+
+  int buckets() {
+    return buckets;
+  }
+
+  @Override
+  public int length() {
+    return LENGTH;
+  }
+
+  @Override
+  public void write(Object key, byte[] row) {
+    int hash = Bytes.hashCode(row, LENGTH, row.length - LENGTH);
+    row[0] = (byte) Math.floorMod(hash, buckets);
+  }
+}
@@ -0,0 +1,9 @@
+package com.bakdata.ignite.hbase;
+
+/**
+ * Argument of {@link HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure,
+ * Object...)} which is applied to the scan itself rather than being a filter.
+ */
+interface ScanArgument {
+
+}
@@ -0,0 +1,133 @@
+package com.bakdata.ignite.hbase;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+
+/**
+ * {@link BufferedMutator} shared by all sessions of a {@link HBaseCacheStoreSessionListener}.
+ * Mutations are sent to HBase asynchronously once the write buffer is full or the flush interval
+ * elapsed. Mutations failing in the background are reported by the next call to {@link
+ * #mutate(List)} or {@link #flush()}.
+ */
+final class SharedMutator implements Closeable {
+
+  private final AtomicReference<IOException> failure = new AtomicReference<>();
+  private final ExecutorService pool;
+  private final ScheduledExecutorService flusher;
+  private final BufferedMutator mutator;
+
+  private SharedMutator(Connection conn, TableName tableName, long writeBufferSize,
+      long flushInterval, int maxInflightWrites) throws IOException {
+    // bounds the number of concurrent RPCs sending mutations to HBase
+    this.pool = new ThreadPoolExecutor(maxInflightWrites, maxInflightWrites, 60L,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("hbase-mutator-%d").setDaemon(true).build());
+    BufferedMutatorParams params = new BufferedMutatorParams(tableName)
+        .pool(pool)
+        .listener((e, m) -> failure.compareAndSet(null, e));
+    if (writeBufferSize > 0L) {
+      params.writeBufferSize(writeBufferSize);
+    }
+    this.mutator = conn.getBufferedMutator(params);
+    if (flushInterval > 0L) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("hbase-mutator-flush-%d").setDaemon(true)
+              .build());
+      flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  /**
+   * @param conn HBase connection
+   * @param tableName table to write to
+   * @param writeBufferSize size of write buffer in bytes. If not positive, the HBase default is
+   * used.
+   * @param flushInterval interval in milliseconds to flush the buffer periodically. If not
+   * positive, the buffer is only flushed when full.
+   * @param maxInflightWrites maximum number of concurrent RPCs sending mutations
+   * @return new shared mutator
+   * @throws IOException if an error occurs accessing HBase
+   */
+  static SharedMutator create(Connection conn, TableName tableName, long writeBufferSize,
+      long flushInterval, int maxInflightWrites) throws IOException {
+    return new SharedMutator(conn, tableName, writeBufferSize, flushInterval, maxInflightWrites);
+  }
+
+  /**
+   * Stop flushing periodically, wait for a running periodic flush, and send all buffered mutations
+   * to HBase.
+   *
+   * @throws IOException if previous or buffered mutations failed
+   */
+  @Override
+  public void close() throws IOException {
+    if (flusher != null) {
+      // interrupting a running flush would report a spurious failure
+      flusher.shutdown();
+      try {
+        flusher.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      mutator.close();
+      checkFailure();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Send all buffered mutations to HBase and wait for their completion.
+   *
+   * @throws IOException if previous or buffered mutations failed
+   */
+  void flush() throws IOException {
+    mutator.flush();
+    checkFailure();
+  }
+
+  /**
+   * Buffer mutations to be sent to HBase asynchronously.
+   *
+   * @param mutations mutations to send
+   * @throws IOException if previously buffered mutations failed
+   */
+  void mutate(List<? extends Mutation> mutations) throws IOException {
+    checkFailure();
+    mutator.mutate(mutations);
+  }
+
+  private void checkFailure() throws IOException {
+    IOException e = failure.getAndSet(null);
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      mutator.flush();
+    } catch (IOException e) {
+      failure.compareAndSet(null, e);
+    }
+  }
+}
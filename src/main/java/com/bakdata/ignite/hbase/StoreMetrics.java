@@ -0,0 +1,179 @@
+package com.bakdata.ignite.hbase;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Metrics of an {@link HBaseCacheStore} for a single cache.
+ */
+final class StoreMetrics implements HBaseCacheStoreMXBean {
+
+  private final OperationMetrics loadAll = new OperationMetrics();
+  private final OperationMetrics loadCache = new OperationMetrics();
+  private final OperationMetrics writeAll = new OperationMetrics();
+  private final OperationMetrics deleteAll = new OperationMetrics();
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder bytesWritten = new LongAdder();
+  private final LongAdder negativeCacheHits = new LongAdder();
+  private final LongAdder coalescedLoads = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder rejectedRequests = new LongAdder();
+  private volatile CircuitBreaker circuitBreaker;
+
+  private static long size(Cell cell) {
+    return (long) cell.getRowLength() + cell.getFamilyLength() + cell.getQualifierLength()
+        + cell.getValueLength();
+  }
+
+  static long size(Result result) {
+    long size = 0L;
+    Cell[] cells = result.rawCells();
+    if (cells != null) {
+      for (Cell cell : cells) {
+        size += size(cell);
+      }
+    }
+    return size;
+  }
+
+  static long size(List<? extends Mutation> mutations) {
+    long size = 0L;
+    for (Mutation mutation : mutations) {
+      size += size(mutation);
+    }
+    return size;
+  }
+
+  static long size(Mutation mutation) {
+    long size = 0L;
+    if (mutation.isEmpty()) {
+      size += mutation.getRow().length;
+    }
+    for (List<Cell> cells : mutation.getFamilyCellMap().values()) {
+      for (Cell cell : cells) {
+        size += size(cell);
+      }
+    }
+    return size;
+  }
+
+  void addBytesRead(long bytes) {
+    bytesRead.add(bytes);
+  }
+
+  void addBytesWritten(long bytes) {
+    bytesWritten.add(bytes);
+  }
+
+  void addCoalescedLoads(long loads) {
+    coalescedLoads.add(loads);
+  }
+
+  void addNegativeCacheHits(long hits) {
+    negativeCacheHits.add(hits);
+  }
+
+  void addRejectedRequests(long requests) {
+    rejectedRequests.add(requests);
+  }
+
+  void addRetries(long requests) {
+    retries.add(requests);
+  }
+
+  OperationMetrics deleteAll() {
+    return deleteAll;
+  }
+
+  @Override
+  public long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  @Override
+  public long getBytesWritten() {
+    return bytesWritten.sum();
+  }
+
+  @Override
+  public String getCircuitBreakerState() {
+    CircuitBreaker breaker = circuitBreaker;
+    return breaker != null ? breaker.state().name() : "DISABLED";
+  }
+
+  @Override
+  public long getCoalescedLoads() {
+    return coalescedLoads.sum();
+  }
+
+  @Override
+  public OperationStatistics getDeleteAll() {
+    return deleteAll.snapshot();
+  }
+
+  @Override
+  public OperationStatistics getLoadAll() {
+    return loadAll.snapshot();
+  }
+
+  @Override
+  public OperationStatistics getLoadCache() {
+    return loadCache.snapshot();
+  }
+
+  @Override
+  public long getNegativeCacheHits() {
+    return negativeCacheHits.sum();
+  }
+
+  @Override
+  public long getRejectedRequests() {
+    return rejectedRequests.sum();
+  }
+
+  @Override
+  public long getRetries() {
+    return retries.sum();
+  }
+
+  @Override
+  public OperationStatistics getWriteAll() {
+    return writeAll.snapshot();
+  }
+
+  OperationMetrics loadAll() {
+    return loadAll;
+  }
+
+  OperationMetrics loadCache() {
+    return loadCache;
+  }
+
+  @Override
+  public void resetStatistics() {
+    loadAll.reset();
+    loadCache.reset();
+    writeAll.reset();
+    deleteAll.reset();
+    bytesRead.reset();
+    bytesWritten.reset();
+    negativeCacheHits.reset();
+    coalescedLoads.reset();
+    retries.reset();
+    rejectedRequests.reset();
+  }
+
+  void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+    // called for every request, hence only written if changed
+    if (this.circuitBreaker != circuitBreaker) {
+      this.circuitBreaker = circuitBreaker;
+    }
+  }
+
+  OperationMetrics writeAll() {
+    return writeAll;
+  }
+}
@@ -0,0 +1,107 @@
+package com.bakdata.ignite.hbase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Table;
+
+/**
+ * Pool of {@link Table} handles keyed by table name. A borrowed table is used exclusively by the
+ * borrowing thread until it is released. Tables idle for longer than the idle timeout are closed
+ * when other tables are released.
+ */
+final class TablePool implements Closeable {
+
+  private final ConcurrentMap<TableName, BlockingDeque<IdleTable>> idleTables =
+      new ConcurrentHashMap<>();
+  private final Connection conn;
+  private final int maxIdle;
+  private final long idleTimeout;
+
+  /**
+   * @param conn connection to create tables with
+   * @param maxIdle maximum number of idle tables kept per table name. If not positive, tables are
+   * not pooled.
+   * @param idleTimeout time in milliseconds after which idle tables are closed
+   */
+  TablePool(Connection conn, int maxIdle, long idleTimeout) {
+    this.conn = conn;
+    this.maxIdle = maxIdle;
+    this.idleTimeout = idleTimeout;
+  }
+
+  /**
+   * Borrow a table. Must be returned using {@link #release(Table)}.
+   *
+   * @param tableName name of table to borrow
+   * @return idle table or new table if none is idle
+   * @throws IOException if an error occurs creating a table
+   */
+  Table borrow(TableName tableName) throws IOException {
+    IdleTable idle = idleTables(tableName).pollFirst();
+    return idle != null ? idle.table : conn.getTable(tableName);
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (BlockingDeque<IdleTable> tables : idleTables.values()) {
+      for (IdleTable idle = tables.pollFirst(); idle != null; idle = tables.pollFirst()) {
+        idle.table.close();
+      }
+    }
+  }
+
+  Connection connection() {
+    return conn;
+  }
+
+  /**
+   * Return a borrowed table to the pool. It is closed if the pool is full.
+   *
+   * @param table table to return
+   * @throws IOException if an error occurs closing a table
+   */
+  void release(Table table) throws IOException {
+    BlockingDeque<IdleTable> tables = idleTables(table.getName());
+    long now = System.currentTimeMillis();
+    evictIdle(tables, now - idleTimeout);
+    if (maxIdle <= 0 || !tables.offerFirst(new IdleTable(table, now))) {
+      table.close();
+    }
+  }
+
+  private static void evictIdle(BlockingDeque<IdleTable> tables, long idleSince)
+      throws IOException {
+    // most recently released tables are at the head
+    for (IdleTable oldest = tables.pollLast(); oldest != null; oldest = tables.pollLast()) {
+      if (oldest.releasedAt >= idleSince) {
+        if (!tables.offerLast(oldest)) {
+          oldest.table.close();
+        }
+        return;
+      }
+      oldest.table.close();
+    }
+  }
+
+  private BlockingDeque<IdleTable> idleTables(TableName tableName) {
+    return idleTables.computeIfAbsent(tableName,
+        name -> new LinkedBlockingDeque<>(Math.max(maxIdle, 1)));
+  }
+
+  private static final class IdleTable {
+
+    private final Table table;
+    private final long releasedAt;
+
+    private IdleTable(Table table, long releasedAt) {
+      this.table = table;
+      this.releasedAt = releasedAt;
+    }
+  }
+}
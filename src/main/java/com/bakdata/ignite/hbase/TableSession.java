@@ -0,0 +1,90 @@
+package com.bakdata.ignite.hbase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.ignite.cache.store.CacheStoreSession;
+
+/**
+ * HBase resources attached to a {@link CacheStoreSession} by {@link
+ * HBaseCacheStoreSessionListener}.
+ */
+final class TableSession implements Closeable {
+
+  private final TablePool pool;
+  private final Table table;
+  private final SharedMutator mutator;
+  private final CoalescingBuffer coalescingBuffer;
+
+  TableSession(TablePool pool, Table table, SharedMutator mutator,
+      CoalescingBuffer coalescingBuffer) {
+    this.pool = pool;
+    this.table = table;
+    this.mutator = mutator;
+    this.coalescingBuffer = coalescingBuffer;
+  }
+
+  /**
+   * Return the table of this session to the pool.
+   *
+   * @throws IOException if an error occurs closing the table
+   */
+  @Override
+  public void close() throws IOException {
+    pool.release(table);
+  }
+
+  /**
+   * @return buffer to coalesce writes in, if coalescing writes is enabled. Can be used by any
+   * thread.
+   */
+  Optional<CoalescingBuffer> coalescingBuffer() {
+    return Optional.ofNullable(coalescingBuffer);
+  }
+
+  /**
+   * @return connection the table of this session belongs to
+   */
+  Connection connection() {
+    return pool.connection();
+  }
+
+  /**
+   * @return mutator to buffer writes with, if buffered writes are enabled. Can be used by any
+   * thread.
+   */
+  Optional<SharedMutator> mutator() {
+    return Optional.ofNullable(mutator);
+  }
+
+  /**
+   * @return locator for the regions of the table of this session. Must be closed by the caller.
+   * @throws IOException if an error occurs accessing HBase
+   */
+  RegionLocator regionLocator() throws IOException {
+    return connection().getRegionLocator(tableName());
+  }
+
+  /**
+   * @return pool the table of this session was borrowed from. Can be used to borrow additional
+   * tables, e.g., for threads not bound to this session.
+   */
+  TablePool pool() {
+    return pool;
+  }
+
+  /**
+   * @return table of this session. Must only be used by the thread owning the session.
+   */
+  Table table() {
+    return table;
+  }
+
+  TableName tableName() {
+    return table.getName();
+  }
+}
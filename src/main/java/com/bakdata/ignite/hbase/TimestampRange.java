@@ -0,0 +1,48 @@
+package com.bakdata.ignite.hbase;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Serializable;
+
+/**
+ * Restricts {@link HBaseCacheStore#loadCache(org.apache.ignite.lang.IgniteBiInClosure,
+ * Object...)} to cells written within an interval of time. Region servers skip HFiles outside of
+ * the interval.
+ */
+public final class TimestampRange implements ScanArgument, Serializable {
+
+  private static final long serialVersionUID = 2937411506129856143L;
+  private final long min;
+  private final long max;
+
+  private TimestampRange(long min, long max) {
+    this.min = min;
+    this.max = max;
+  }
+
+  /**
+   * @param min minimum timestamp in milliseconds, inclusive
+   * @param max maximum timestamp in milliseconds, exclusive
+   * @return interval of time
+   */
+  public static TimestampRange of(long min, long max) {
+    checkArgument(min >= 0L && min <= max, "Invalid time range [%s, %s)", min, max);
+    return new TimestampRange(min, max);
+  }
+
+  /**
+   * @param min minimum timestamp in milliseconds, inclusive
+   * @return interval of time from {@code min} on
+   */
+  public static TimestampRange since(long min) {
+    return of(min, Long.MAX_VALUE);
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getMin() {
+    return min;
+  }
+}
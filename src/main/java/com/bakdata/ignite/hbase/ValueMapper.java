@@ -0,0 +1,28 @@
+package com.bakdata.ignite.hbase;
+
+import com.bakdata.commons.serialization.SerializationException;
+import java.util.List;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Maps values of a cache to the columns of a row.
+ *
+ * @param <V> type of values stored in the cache
+ */
+interface ValueMapper<V> {
+
+  /**
+   * @param projection fields to read or null to read all columns
+   * @return qualifiers of the columns storing the fields
+   * @throws IllegalArgumentException if the projection cannot be applied
+   */
+  List<byte[]> qualifiers(Projection projection);
+
+  void addValue(Put put, byte[] family, V value) throws SerializationException;
+
+  /**
+   * @return value stored in the columns of the result or null if none of them is present
+   */
+  V extractValue(Result result, byte[] family) throws SerializationException;
+}
@@ -2,11 +2,22 @@ package com.bakdata.ignite.hbase;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.bakdata.commons.serialization.CompositeSerializer;
+import com.bakdata.commons.serialization.CompressingSerializer;
+import com.bakdata.commons.serialization.CompressionCodec;
+import com.bakdata.commons.serialization.IntSerializer;
+import com.bakdata.commons.serialization.KryoSerializer;
+import com.bakdata.commons.serialization.LongSerializer;
 import com.bakdata.commons.serialization.ObjectSerializer;
+import com.bakdata.commons.serialization.OrderedDoubleSerializer;
+import com.bakdata.commons.serialization.OrderedIntSerializer;
+import com.bakdata.commons.serialization.OrderedLongSerializer;
 import com.bakdata.commons.serialization.Serializer;
 import com.bakdata.commons.serialization.StringSerializer;
 import com.google.protobuf.ServiceException;
@@ -14,13 +25,43 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.cache.CacheException;
+import javax.cache.configuration.Factory;
 import javax.cache.configuration.FactoryBuilder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
@@ -28,18 +69,33 @@ import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.RowFilter;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.io.compress.Compression.Algorithm;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.io.hfile.BlockCache;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
+import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.cache.CacheAtomicityMode;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.configuration.BinaryConfiguration;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.lang.IgniteBiPredicate;
+import org.apache.ignite.resources.IgniteInstanceResource;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -77,12 +133,84 @@ public class HBaseCacheStoreTest {
     utility.shutdownMiniCluster();
   }
 
+  /**
+   * Partition-aware stores only scan the partitions a node owns. Partitions are not reassigned to
+   * joining nodes until rebalancing finished, hence loading before would miss rows.
+   */
+  private static void awaitPartitionAssignment(String cacheName, Ignite... nodes)
+      throws InterruptedException {
+    for (Ignite node : nodes) {
+      node.cache(cacheName).rebalance().get();
+    }
+    long deadline = System.currentTimeMillis() + 10_000L;
+    while (!isPartitionedAmong(cacheName, nodes)) {
+      assertTrue("Partitions have not been reassigned", System.currentTimeMillis() < deadline);
+      Thread.sleep(100L);
+    }
+  }
+
+  /**
+   * @return whether every partition is owned by exactly one node, as seen by each node itself like
+   * partition aware stores do
+   */
+  private static boolean isPartitionedAmong(String cacheName, Ignite... nodes) {
+    Collection<Integer> owned = new HashSet<>();
+    int count = 0;
+    for (Ignite node : nodes) {
+      int[] partitions = node.affinity(cacheName).primaryPartitions(node.cluster().localNode());
+      if (partitions.length == 0) {
+        return false;
+      }
+      count += partitions.length;
+      Arrays.stream(partitions).forEach(owned::add);
+    }
+    return count == owned.size() && owned.size() == nodes[0].affinity(cacheName).partitions();
+  }
+
   private static void applyHBaseConfiguration(HBaseCacheStoreSessionListener cssl) {
     for (Entry<String, String> entry : utility.getConfiguration()) {
       cssl.addProperty(entry.getKey(), entry.getValue());
     }
   }
 
+  private static void assertSplit(List<Put> puts, List<List<Integer>> batches, int maxSize,
+      long maxBytes, int servers) {
+    Collection<Integer> indices = new HashSet<>();
+    for (List<Integer> batch : batches) {
+      assertTrue(batch.size() <= maxSize);
+      assertTrue(batch.stream().mapToLong(i -> puts.get(i).heapSize()).sum() <= maxBytes);
+      assertEquals(1L, batch.stream().map(i -> serverOf(puts.get(i), servers)).distinct().count());
+      indices.addAll(batch);
+    }
+    assertEquals(puts.size(), indices.size());
+    assertEquals(puts.size(), batches.stream().mapToInt(List::size).sum());
+  }
+
+  /**
+   * @return locator assigning rows to region servers by hash
+   */
+  private static RegionLocator createLocator(int servers) {
+    HRegionInfo region = new HRegionInfo(TableName.valueOf(TABLE_NAME));
+    return (RegionLocator) Proxy.newProxyInstance(RegionLocator.class.getClassLoader(),
+        new Class<?>[] {RegionLocator.class}, (proxy, method, args) -> {
+          if (!method.getName().equals("getRegionLocation")) {
+            throw new UnsupportedOperationException(method.getName());
+          }
+          int server = Math.abs(Arrays.hashCode((byte[]) args[0]) % servers);
+          return new HRegionLocation(region, ServerName.valueOf("server" + server, 16020, 0L));
+        });
+  }
+
+  private static int serverOf(Put put, int servers) {
+    return Math.abs(Arrays.hashCode(put.getRow()) % servers);
+  }
+
+  private static Put createPut(String cacheName, String row, String value) {
+    Put put = new Put(Bytes.toBytes(row));
+    put.addColumn(cacheName.getBytes(), QUALIFIER, Bytes.toBytes(value));
+    return put;
+  }
+
   private static void deleteTable(Admin admin, TableName tableName) throws IOException {
     if (admin.tableExists(tableName)) {
       admin.disableTable(tableName);
@@ -96,6 +224,12 @@ public class HBaseCacheStoreTest {
     return ConnectionFactory.createConnection(conf);
   }
 
+  private static byte[] getValue(Table table, byte[] row, String cacheName) throws IOException {
+    Get get = new Get(row);
+    get.addColumn(cacheName.getBytes(), QUALIFIER);
+    return table.get(get).getValue(cacheName.getBytes(), QUALIFIER);
+  }
+
   private static IgniteConfiguration prepareConfig() {
     return prepareConfig(true);
   }
@@ -138,6 +272,368 @@ public class HBaseCacheStoreTest {
     return cfg;
   }
 
+  @Test
+  public void testBatchSplitter() throws IOException {
+    List<Put> puts = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      puts.add(createPut("myCache", "key" + i, "value" + i));
+    }
+    long maxBytes = 3 * puts.get(0).heapSize();
+    List<List<Integer>> batches = new BatchSplitter(7, 0L)
+        .split(puts, Put::heapSize, createLocator(1));
+    assertEquals(15, batches.size());
+    assertSplit(puts, batches, 7, Long.MAX_VALUE, 1);
+    batches = new BatchSplitter(0, maxBytes).split(puts, Put::heapSize, createLocator(1));
+    assertTrue(batches.size() >= 34);
+    assertSplit(puts, batches, Integer.MAX_VALUE, maxBytes, 1);
+    // sub-batches of each server
+    batches = new BatchSplitter(7, 0L).split(puts, Put::heapSize, createLocator(2));
+    long perServer = puts.stream().filter(put -> serverOf(put, 2) == 0).count();
+    assertTrue(perServer > 0L && perServer < puts.size());
+    assertEquals((perServer + 6) / 7 + (puts.size() - perServer + 6) / 7, batches.size());
+    assertSplit(puts, batches, 7, Long.MAX_VALUE, 2);
+  }
+
+  @Test
+  public void testBatchSplitting() throws IOException, ServiceException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setSplitKeys(Arrays.asList(ObjectSerializer.INSTANCE.serialize("key5")));
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setMaxBatchSize(7);
+    cs.setMaxBatchBytes(1024L);
+    cs.setIoThreads(4);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      Map<String, String> values = new HashMap<>();
+      for (int i = 0; i < 100; i++) {
+        values.put("key" + i, "value" + i);
+      }
+      cache.putAll(values);
+      cache.clear();
+      assertEquals(values, cache.getAll(values.keySet()));
+      cache.removeAll(values.keySet());
+      cache.clear();
+      assertTrue(cache.getAll(values.keySet()).isEmpty());
+    }
+  }
+
+  @Test
+  public void testBufferedWrites() {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setBufferedWrites(true);
+    IgniteConfiguration cfg = prepareConfig(cssl, create(), false);
+    IgniteConfiguration cfg2 = new IgniteConfiguration(cfg);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      cache.put("Hello", "World");
+      cache.put("Foo", "Bar");
+      cache.remove("Foo");
+      assertEquals("World", cache.get("Hello"));
+    }
+
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      assertEquals("World", cache.get("Hello"));
+      assertNull(cache.get("Foo"));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCircuitBreaker()
+      throws IOException, ServiceException, JMException, InterruptedException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.addProperty("hbase.client.retries.number", "1");
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setCircuitBreakerFailureRate(0.1);
+    cs.setCircuitBreakerMinimumRequests(1);
+    cs.setCircuitBreakerOpenDuration(500L);
+    cs.setLoadFallbackToMiss(true);
+    cs.setMaxRetries(2);
+    cs.setRetryBackoff(10L);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    cfg.setGridName("circuitBreaker");
+    // a single store for all caches, which thus share the breaker of their table
+    SharedStoreFactory.store = cs;
+    cfg.getCacheConfiguration()[0].setCacheStoreFactory(new SharedStoreFactory());
+    String cacheName = "myCache";
+    String otherCacheName = "otherCache";
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    // created up front as adding a column family closes the region, failing unretried requests
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), tableName);
+      HTableDescriptor descriptor = new HTableDescriptor(tableName);
+      descriptor.addFamily(new HColumnDescriptor(cacheName));
+      descriptor.addFamily(new HColumnDescriptor(otherCacheName));
+      conn.getAdmin().createTable(descriptor);
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(
+        "com.bakdata.ignite.hbase:type=HBaseCacheStore,grid=\"circuitBreaker\",cache=\""
+            + cacheName + "\"");
+    ObjectName otherName = new ObjectName(
+        "com.bakdata.ignite.hbase:type=HBaseCacheStore,grid=\"circuitBreaker\",cache=\""
+            + otherCacheName + "\"");
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      IgniteCache<String, String> otherCache = ignite.getOrCreateCache(otherCacheName);
+      cache.put("Hello", "World");
+      otherCache.put("Hello", "World");
+      cache.clear();
+      assertEquals("World", cache.get("Hello"));
+      assertEquals("CLOSED", server.getAttribute(name, "CircuitBreakerState"));
+      assertEquals("CLOSED", server.getAttribute(otherName, "CircuitBreakerState"));
+      // rejected by HBase without opening the breaker
+      try (Connection conn = getHBaseConnection()) {
+        conn.getAdmin().deleteColumn(tableName, Bytes.toBytes(otherCacheName));
+        // the client retries until the region is reopened without the column family
+        Put put = new Put(Bytes.toBytes("Foo"));
+        put.addColumn(Bytes.toBytes(otherCacheName), QUALIFIER, Bytes.toBytes("Bar"));
+        conn.getTable(tableName).put(put);
+        fail();
+      } catch (RetriesExhaustedWithDetailsException e) {
+        // expected
+      }
+      try {
+        otherCache.put("Foo", "Bar");
+        fail();
+      } catch (CacheException e) {
+        // expected
+      }
+      assertEquals("CLOSED", server.getAttribute(name, "CircuitBreakerState"));
+      assertEquals(0L, server.getAttribute(otherName, "Retries"));
+      try (Connection conn = getHBaseConnection()) {
+        conn.getAdmin().disableTable(tableName);
+      }
+      // the failed put opens the breaker, which rejects its retry
+      cache.clear();
+      try {
+        cache.put("Foo", "Bar");
+        fail();
+      } catch (CacheException e) {
+        // expected
+      }
+      assertEquals("OPEN", server.getAttribute(name, "CircuitBreakerState"));
+      assertEquals("OPEN", server.getAttribute(otherName, "CircuitBreakerState"));
+      assertEquals(1L, server.getAttribute(name, "Retries"));
+      // rejected without accessing HBase and reported as missing
+      assertNull(cache.get("Hello"));
+      assertEquals(2L, server.getAttribute(name, "RejectedRequests"));
+
+      try (Connection conn = getHBaseConnection()) {
+        conn.getAdmin().enableTable(tableName);
+      }
+      Thread.sleep(500L);
+      // trial request closes the breaker
+      cache.put("Hello", "World");
+      cache.clear();
+      assertEquals("World", cache.get("Hello"));
+      assertEquals("CLOSED", server.getAttribute(name, "CircuitBreakerState"));
+    }
+  }
+
+  @Test
+  public void testCircuitBreakerTrial() throws InterruptedException {
+    CircuitBreaker breaker = new CircuitBreaker(0.5, 2, 60000L, 50L);
+    CircuitBreaker.Permit stale = breaker.allowRequest();
+    breaker.recordFailure(breaker.allowRequest());
+    breaker.recordFailure(breaker.allowRequest());
+    assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    assertEquals(CircuitBreaker.Permit.DENIED, breaker.allowRequest());
+    Thread.sleep(100L);
+    CircuitBreaker.Permit trial = breaker.allowRequest();
+    assertEquals(CircuitBreaker.Permit.TRIAL, trial);
+    // requests let through before the trial do not decide the state
+    breaker.recordFailure(stale);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    assertEquals(CircuitBreaker.Permit.DENIED, breaker.allowRequest());
+    breaker.recordFailure(trial);
+    assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    Thread.sleep(100L);
+    trial = breaker.allowRequest();
+    breaker.recordSuccess(CircuitBreaker.Permit.REQUEST);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    breaker.recordSuccess(trial);
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    assertEquals(CircuitBreaker.Permit.REQUEST, breaker.allowRequest());
+  }
+
+  @Test
+  public void testCoalescingWrites() throws IOException, ServiceException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setCoalescingWrites(true);
+    cssl.setCoalescingMaxAge(0L);
+    IgniteConfiguration cfg = prepareConfig(cssl, create(), false);
+    String cacheName = "myCache";
+    Serializer<Object> serializer = ObjectSerializer.INSTANCE;
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg);
+        Connection conn = getHBaseConnection()) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+      for (int i = 0; i < 100; i++) {
+        cache.put("counter", String.valueOf(i));
+      }
+      cache.put("Hello", "World");
+      cache.put("Foo", "Bar");
+      cache.remove("Foo");
+      // buffered
+      assertNull(getValue(table, serializer.serialize("counter"), cacheName));
+      cache.clear("counter");
+      assertEquals("99", cache.get("counter"));
+      assertEquals("99",
+          serializer.deserialize(getValue(table, serializer.serialize("counter"), cacheName)));
+      assertNull(getValue(table, serializer.serialize("Hello"), cacheName));
+    }
+    try (Connection conn = getHBaseConnection()) {
+      // flushed when the node stops
+      Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+      assertEquals("World",
+          serializer.deserialize(getValue(table, serializer.serialize("Hello"), cacheName)));
+      assertNull(getValue(table, serializer.serialize("Foo"), cacheName));
+    }
+  }
+
+  @Test
+  public void testCoalescingWritesAfterFailure()
+      throws IOException, ServiceException, InterruptedException {
+    String cacheName = "myCache";
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    Configuration conf = new Configuration(utility.getConfiguration());
+    conf.set("hbase.client.retries.number", "1");
+    try (Connection conn = ConnectionFactory.createConnection(conf)) {
+      Admin admin = conn.getAdmin();
+      deleteTable(admin, tableName);
+      HTableDescriptor descriptor = new HTableDescriptor(tableName);
+      descriptor.addFamily(new HColumnDescriptor(cacheName));
+      admin.createTable(descriptor);
+      Table table = conn.getTable(tableName);
+      CoalescingBuffer buffer = CoalescingBuffer.create(conn, tableName, 0, 0L, 0L);
+      buffer.mutate(cacheName, Collections.singletonList(createPut(cacheName, "Hello", "World")));
+      buffer.mutate(cacheName, Collections.singletonList(createPut(cacheName, "Foo", "Bar")));
+      admin.disableTable(tableName);
+      try {
+        buffer.flush();
+        fail();
+      } catch (IOException e) {
+        // expected
+      }
+      // replaces the failed mutation
+      buffer.mutate(cacheName, Collections.singletonList(createPut(cacheName, "Foo", "Baz")));
+      admin.enableTable(tableName);
+      // failed mutations stay buffered and are sent with the next flush
+      buffer.close();
+      assertEquals("World", Bytes.toString(getValue(table, Bytes.toBytes("Hello"), cacheName)));
+      assertEquals("Baz", Bytes.toString(getValue(table, Bytes.toBytes("Foo"), cacheName)));
+    }
+  }
+
+  @Test(expected = IgniteException.class)
+  public void testCoalescingWritesWithBufferedWrites() {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setBufferedWrites(true);
+    cssl.setCoalescingWrites(true);
+    IgniteConfiguration cfg = prepareConfig(cssl, create(), false);
+    // Ignite keeps the MBeans of caches failing to start registered
+    cfg.setGridName("coalescingWritesWithBufferedWrites");
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      ignite.getOrCreateCache("myCache");
+    }
+  }
+
+  @Test
+  public void testColumnFamilySpec() throws IOException, ServiceException {
+    ColumnFamilySpec spec = new ColumnFamilySpec();
+    spec.setDataBlockEncoding(DataBlockEncoding.FAST_DIFF);
+    spec.setCompression(Algorithm.GZ);
+    spec.setBloomFilterType(BloomType.ROWCOL);
+    spec.setBlockSize(16 * 1024);
+    spec.setInMemory(true);
+    spec.setTimeToLive(3600);
+    spec.setMaxVersions(1);
+    String cacheName = "tunedCache";
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.addColumnFamilySpec(cacheName, spec);
+    cssl.setSplitKeys(HBaseCacheStore.partitionSplitKeys(1024, 4));
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setPartitionAware(true);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), tableName);
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.put("Hello", "World");
+      cache.clear();
+      assertEquals("World", cache.get("Hello"));
+    }
+    try (Connection conn = getHBaseConnection()) {
+      Admin admin = conn.getAdmin();
+      assertEquals(4, admin.getTableRegions(tableName).size());
+      HColumnDescriptor family =
+          admin.getTableDescriptor(tableName).getFamily(cacheName.getBytes());
+      assertEquals(DataBlockEncoding.FAST_DIFF, family.getDataBlockEncoding());
+      assertEquals(Algorithm.GZ, family.getCompressionType());
+      assertEquals(BloomType.ROWCOL, family.getBloomFilterType());
+      assertEquals(16 * 1024, family.getBlocksize());
+      assertTrue(family.isInMemory());
+      assertEquals(3600, family.getTimeToLive());
+      assertEquals(1, family.getMaxVersions());
+    }
+  }
+
+  @Test
+  public void testCompressingSerializer() throws ServiceException, IOException {
+    Serializer<String> serializer =
+        new CompressingSerializer<>(StringSerializer.INSTANCE, CompressionCodec.LZ4, 64);
+    HBaseCacheStore<Object, String> cs =
+        new HBaseCacheStore<>(ObjectSerializer.INSTANCE, serializer);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    String cacheName = "compressedCache";
+    String large = String.join("", Collections.nCopies(100, "Hello World"));
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.put("small", "Hello World");
+      cache.put("large", large);
+      cache.clear();
+      assertEquals("Hello World", cache.get("small"));
+      assertEquals(large, cache.get("large"));
+    }
+    try (Connection conn = getHBaseConnection()) {
+      Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+      byte[] small = getValue(table, ObjectSerializer.INSTANCE.serialize("small"), cacheName);
+      byte[] compressed = getValue(table, ObjectSerializer.INSTANCE.serialize("large"), cacheName);
+      // raw and compressed values are distinguished by their header
+      assertEquals(0, small[0]);
+      assertEquals(1 + "Hello World".length(), small.length);
+      assertTrue(compressed[0] != 0);
+      assertTrue(compressed.length < large.length());
+      // values remain readable if the codec changes
+      Serializer<String> deflate =
+          new CompressingSerializer<>(StringSerializer.INSTANCE, CompressionCodec.DEFLATE, 64);
+      assertEquals(large, deflate.deserialize(compressed));
+      assertEquals("Hello World", deflate.deserialize(small));
+    }
+  }
+
   @Test
   public void testConfigurationFile() throws IOException {
     File file = folder.newFile();
@@ -339,6 +835,466 @@ public class HBaseCacheStoreTest {
     }
   }
 
+  @Test
+  public void testFieldMapping() throws ServiceException, IOException {
+    FieldMapping mapping = new FieldMapping(Point.class.getName());
+    mapping.addField("x", IntSerializer.INSTANCE);
+    mapping.addField("y", IntSerializer.INSTANCE);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setFieldMapping(mapping);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    IgniteConfiguration cfg2 = new IgniteConfiguration(cfg);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    String cacheName = "fieldCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(cacheName);
+      for (int i = 0; i < 10; i++) {
+        cache.put("Hello" + i, new Point(i, 2 * i));
+      }
+    }
+    try (Connection conn = getHBaseConnection()) {
+      Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+      Result result = table.get(new Get(ObjectSerializer.INSTANCE.serialize("Hello4")));
+      byte[] y = result.getValue(cacheName.getBytes(), "y".getBytes());
+      assertEquals(Integer.valueOf(8), IntSerializer.INSTANCE.deserialize(y));
+    }
+
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(cacheName);
+      assertEquals(new Point(3, 6), cache.get("Hello3"));
+      cache.clear();
+      SingleColumnValueFilter filter = new SingleColumnValueFilter(cacheName.getBytes(),
+          "x".getBytes(), CompareOp.GREATER_OR_EQUAL, IntSerializer.INSTANCE.serialize(5));
+      cache.loadCache(null, filter, Projection.of("x"));
+      assertEquals(5, cache.size());
+      assertEquals(new Point(7, 0), cache.get("Hello7"));
+    }
+  }
+
+  @Test
+  public void testFieldMappingNullFields() throws ServiceException, IOException {
+    FieldMapping mapping = new FieldMapping(Label.class.getName());
+    mapping.addField("text", StringSerializer.INSTANCE);
+    mapping.addField("color", StringSerializer.INSTANCE);
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setFieldMapping(mapping);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    String cacheName = "fieldCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, Label> cache = ignite.getOrCreateCache(cacheName);
+      // empty fields are not confused with null fields
+      cache.put("empty", new Label("", "red"));
+      cache.put("none", new Label(null, null));
+      cache.put("updated", new Label("Hello", "red"));
+      cache.put("updated", new Label("Hello", null));
+      cache.clear();
+      assertEquals(new Label("", "red"), cache.get("empty"));
+      assertEquals(new Label(null, null), cache.get("none"));
+      assertEquals(new Label("Hello", null), cache.get("updated"));
+      cache.clear();
+      cache.loadCache(null, Projection.of("color"));
+      assertEquals(3, cache.size());
+      assertEquals(new Label(null, null), cache.get("updated"));
+    }
+  }
+
+  @Test
+  public void testIoThreads() throws IOException, ServiceException, InterruptedException,
+      ExecutionException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setIoThreads(2);
+    cs.setMaxInflightRequests(2);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    // restarts reuse the stopped store
+    SharedStoreFactory.store = cs;
+    cfg.getCacheConfiguration()[0].setCacheStoreFactory(new SharedStoreFactory());
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        String key = "key" + i;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 10; j++) {
+            cache.put(key, "value" + j);
+            cache.clear(key);
+            assertEquals("value" + j, cache.get(key));
+          }
+          cache.remove(key);
+          cache.clear(key);
+          assertNull(cache.get(key));
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      assertTrue(Thread.getAllStackTraces().keySet().stream()
+          .anyMatch(thread -> thread.getName().startsWith("hbase-store-io-")));
+    } finally {
+      executor.shutdownNow();
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      cache.put("Hello", "World");
+      cache.clear("Hello");
+      assertEquals("World", cache.get("Hello"));
+    }
+  }
+
+  @Test
+  public void testKeepBinary() throws ServiceException, IOException {
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setKeepBinary(true);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    cfg.getCacheConfiguration()[0].setStoreKeepBinary(true);
+    BinaryConfiguration binaryCfg = new BinaryConfiguration();
+    binaryCfg.setCompactFooter(false);
+    cfg.setBinaryConfiguration(binaryCfg);
+    IgniteConfiguration cfg2 = new IgniteConfiguration(cfg);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    String cacheName = "binaryCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(cacheName);
+      cache.put("Hello", new Point(4, 2));
+      cache.put("World", new Point(2, 4));
+    }
+
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(cacheName);
+      assertEquals(new Point(4, 2), cache.get("Hello"));
+      BinaryObject binary = cache.<String, BinaryObject>withKeepBinary().get("World");
+      assertEquals(Integer.valueOf(2), binary.field("x"));
+      cache.clear();
+      cache.loadCache(null);
+      assertEquals(2, cache.size());
+      assertEquals(new Point(2, 4), cache.get("World"));
+    }
+
+    // fields of binary objects can be mapped to columns as well
+    FieldMapping mapping = new FieldMapping(Point.class.getName());
+    mapping.addField("x", IntSerializer.INSTANCE);
+    mapping.addField("y", IntSerializer.INSTANCE);
+    cs.setFieldMapping(mapping);
+    String mappedCacheName = "binaryFieldCache";
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(mappedCacheName);
+      cache.put("Hello", new Point(4, 2));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(mappedCacheName);
+      assertEquals(new Point(4, 2), cache.get("Hello"));
+    }
+  }
+
+  @Test
+  public void testKryoSerializer() throws ServiceException, IOException {
+    Serializer<Object> serializer = new KryoSerializer(Collections.singletonList(Point.class));
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setValueSerializer(serializer);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    IgniteConfiguration cfg2 = new IgniteConfiguration(cfg);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    String cacheName = "kryoCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, Point> cache = ignite.getOrCreateCache(cacheName);
+      cache.put("Hello", new Point(4, 2));
+      cache.clear("Hello");
+      assertEquals(new Point(4, 2), cache.get("Hello"));
+    }
+    try (Connection conn = getHBaseConnection()) {
+      Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+      Get get = new Get(ObjectSerializer.INSTANCE.serialize("Hello"));
+      get.addColumn(cacheName.getBytes(), QUALIFIER);
+      byte[] serialized = table.get(get).getValue(cacheName.getBytes(), QUALIFIER);
+      assertEquals(new Point(4, 2), serializer.deserialize(serialized));
+      assertTrue(serialized.length < ObjectSerializer.INSTANCE.serialize(new Point(4, 2)).length);
+    }
+  }
+
+  @Test
+  public void testLoadKeyRange() throws IOException, ServiceException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    // range spans two regions
+    cssl.setSplitKeys(Collections.singletonList(OrderedLongSerializer.INSTANCE.serialize(0L)));
+    HBaseCacheStore<Long, Long> cs =
+        new HBaseCacheStore<>(OrderedLongSerializer.INSTANCE, LongSerializer.INSTANCE);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    String cacheName = "rangeCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<Long, Long> cache = ignite.getOrCreateCache(cacheName);
+      for (long i = -50L; i < 50L; i++) {
+        cache.put(i, i);
+      }
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<Long, Long> cache = ignite.getOrCreateCache(cacheName);
+      cache.loadCache(null, KeyRange.of(-10L, 10L));
+      assertEquals(20, cache.size());
+      cache.clear();
+      cache.loadCache(null, KeyRange.of(null, -40L));
+      assertEquals(10, cache.size());
+      assertEquals(Long.valueOf(-50L), cache.localPeek(-50L));
+    }
+  }
+
+  @Test
+  public void testLoadCacheStreaming() throws IOException, ServiceException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setSplitKeys(Arrays.asList(ObjectSerializer.INSTANCE.serialize("key5")));
+    HBaseCacheStore<Object, Object> cs = create();
+    // every scan needs many RPCs, limited by rows as well as by bytes
+    cs.setScanCaching(7);
+    cs.setScanMaxResultSize(1024L);
+    cs.setLoadCacheThreads(2);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    cfg.setGridName("streaming");
+    String cacheName = "streamingCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      values.put("key" + i, "value" + i);
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.putAll(values);
+      cache.clear();
+      LoadedKeys.KEYS.clear();
+      cache.loadCache(new LoadedKeys());
+      // every row is passed to the closure exactly once
+      Collection<String> keys = LoadedKeys.KEYS.get(ignite.name());
+      assertEquals(values.size(), keys.size());
+      assertEquals(values.keySet(), new HashSet<>(keys));
+      assertEquals(values, cache.getAll(values.keySet()));
+    }
+  }
+
+  @Test
+  public void testLoadCoalescing() throws IOException, ServiceException, JMException,
+      InterruptedException, ExecutionException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setLoadBatchWindow(200_000L);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    cfg.setGridName("coalescing");
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      for (int i = 0; i < threads / 2; i++) {
+        cache.put("key" + i, "value" + i);
+      }
+      cache.clear();
+      CountDownLatch ready = new CountDownLatch(threads);
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        // each key is loaded by two threads
+        String key = "key" + i % (threads / 2);
+        futures.add(executor.submit(() -> {
+          ready.countDown();
+          ready.await();
+          return cache.get(key);
+        }));
+      }
+      for (int i = 0; i < threads; i++) {
+        assertEquals("value" + i % (threads / 2), futures.get(i).get());
+      }
+      ObjectName name = new ObjectName("com.bakdata.ignite.hbase:type=HBaseCacheStore,"
+          + "grid=\"coalescing\",cache=\"myCache\"");
+      long coalesced = (Long) ManagementFactory.getPlatformMBeanServer()
+          .getAttribute(name, "CoalescedLoads");
+      assertTrue(coalesced > 0L);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLoadCompositeKeyRange() throws IOException, ServiceException {
+    CompositeSerializer keySerializer =
+        new CompositeSerializer(StringSerializer.INSTANCE, OrderedIntSerializer.INSTANCE);
+    HBaseCacheStore<List<Object>, String> cs =
+        new HBaseCacheStore<>(keySerializer, StringSerializer.INSTANCE);
+    cs.setSaltBuckets(4);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    String cacheName = "compositeCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<List<Object>, String> cache = ignite.getOrCreateCache(cacheName);
+      for (String user : Arrays.asList("a", "b", "b\0", "c")) {
+        for (int i = -5; i < 5; i++) {
+          cache.put(new ArrayList<>(Arrays.asList(user, i)), user + i);
+        }
+      }
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<List<Object>, String> cache = ignite.getOrCreateCache(cacheName);
+      // all keys of user b
+      cache.loadCache(null, KeyRange.of(Arrays.asList("b", Integer.MIN_VALUE),
+          Arrays.asList("b", Integer.MAX_VALUE)));
+      assertEquals(10, cache.size());
+      assertEquals("b-5", cache.localPeek(new ArrayList<>(Arrays.asList("b", -5))));
+      assertNull(cache.localPeek(new ArrayList<>(Arrays.asList("b\0", -5))));
+    }
+  }
+
+  @Test
+  public void testLoadScanArguments() throws IOException, ServiceException {
+    CompositeSerializer keySerializer =
+        new CompositeSerializer(StringSerializer.INSTANCE, OrderedIntSerializer.INSTANCE);
+    HBaseCacheStore<List<Object>, String> cs =
+        new HBaseCacheStore<>(keySerializer, StringSerializer.INSTANCE);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    String cacheName = "argumentsCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<List<Object>, String> cache = ignite.getOrCreateCache(cacheName);
+      for (String user : Arrays.asList("a", "b", "ba", "c")) {
+        for (int i = -5; i < 5; i++) {
+          cache.put(new ArrayList<>(Arrays.asList(user, i)), user + i);
+        }
+      }
+    }
+    // write-behind flushes when the node stops
+    long written = System.currentTimeMillis();
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<List<Object>, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.loadCache(null, KeyPrefix.of(Collections.singletonList("b")));
+      assertEquals(10, cache.size());
+      assertNull(cache.localPeek(new ArrayList<>(Arrays.asList("ba", 0))));
+      cache.clear();
+      // intersection of prefix and range
+      cache.loadCache(null, KeyPrefix.of(Collections.singletonList("b")),
+          KeyRange.of(Arrays.asList("b", 0), null));
+      assertEquals(5, cache.size());
+      cache.clear();
+      cache.loadCache(null, RowLimit.of(3L));
+      assertEquals(3, cache.size());
+      cache.clear();
+      cache.loadCache(null, TimestampRange.since(written + 1L));
+      assertEquals(0, cache.size());
+      cache.loadCache(null, TimestampRange.of(0L, written + 1L));
+      assertEquals(40, cache.size());
+    }
+  }
+
+  @Test
+  public void testLoadMultipleRegions() throws IOException, ServiceException {
+    Serializer<String> serializer = StringSerializer.INSTANCE;
+    HBaseCacheStore<String, String> csf = new HBaseCacheStore<>(serializer, serializer);
+    csf.setLoadCacheThreads(2);
+    IgniteConfiguration cfg = prepareConfig(csf);
+    IgniteConfiguration cfg2 = new IgniteConfiguration(cfg);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    String cacheName = "myCache";
+    try (Connection conn = getHBaseConnection()) {
+      Admin admin = conn.getAdmin();
+      TableName tableName = TableName.valueOf(TABLE_NAME);
+      deleteTable(admin, tableName);
+      HTableDescriptor table = new HTableDescriptor(tableName);
+      table.addFamily(new HColumnDescriptor(cacheName));
+      byte[][] splitKeys = {"f".getBytes(), "m".getBytes(), "t".getBytes()};
+      admin.createTable(table, splitKeys);
+      assertEquals(4, admin.getTableRegions(tableName).size());
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      for (char c = 'a'; c <= 'z'; c++) {
+        cache.put(String.valueOf(c), "World");
+      }
+    }
+
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      assertEquals(0, cache.size());
+      cache.loadCache(null);
+      assertEquals(26, cache.size());
+    }
+  }
+
+  @Test
+  public void testLoadPartitionAware() throws IOException, ServiceException, InterruptedException {
+    // the local node is injected into the store, hence each node needs its own instance
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setPartitionAware(true);
+    HBaseCacheStore<Object, Object> cs2 = create();
+    cs2.setPartitionAware(true);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    IgniteConfiguration cfg2 = prepareConfig(cs2);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    String cacheName = "partitionAwareCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      for (int i = 0; i < 100; i++) {
+        cache.put("Hello" + i, "World" + i);
+      }
+    }
+
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      assertEquals(0, cache.size());
+      awaitPartitionAssignment(cacheName, ignite, ignite2);
+      LoadedKeys.KEYS.clear();
+      cache.loadCache(new LoadedKeys());
+      assertEquals(100, cache.size());
+      // each node scans only its own partitions, hence every row is passed to a single closure
+      Affinity<Object> affinity = ignite.affinity(cacheName);
+      for (Ignite node : Arrays.asList(ignite, ignite2)) {
+        Collection<String> keys = LoadedKeys.KEYS.get(node.name());
+        assertFalse(keys.isEmpty());
+        for (String key : keys) {
+          assertTrue(affinity.isPrimary(node.cluster().localNode(), key));
+        }
+      }
+      assertEquals(100, LoadedKeys.KEYS.values().stream().mapToInt(Collection::size).sum());
+      assertEquals("World42", cache.get("Hello42"));
+      cache.clear("Hello42");
+      assertEquals("World42", cache.get("Hello42"));
+    }
+  }
+
   @Test
   public void testManualHBaseInsertion() throws ServiceException, IOException {
     IgniteConfiguration cfg = prepareConfig(false);
@@ -389,6 +1345,171 @@ public class HBaseCacheStoreTest {
     }
   }
 
+  @Test
+  public void testMetrics() throws IOException, ServiceException, JMException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    IgniteConfiguration cfg = prepareConfig(cssl, create(), false);
+    cfg.setGridName("metrics");
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(
+        "com.bakdata.ignite.hbase:type=HBaseCacheStore,grid=\"metrics\",cache=\"myCache\"");
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      Map<String, String> values = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+        values.put("key" + i, "value" + i);
+      }
+      cache.putAll(values);
+      cache.clear();
+      assertEquals(values, cache.getAll(values.keySet()));
+      cache.clear();
+      cache.loadCache(null);
+      assertEquals(10, cache.size());
+      cache.loadCache(null, KeyRange.of("key9", "key0"));
+      try {
+        cache.loadCache(null, "");
+        fail();
+      } catch (CacheException e) {
+        // expected
+      }
+      cache.removeAll(values.keySet());
+
+      CompositeData writeAll = (CompositeData) server.getAttribute(name, "WriteAll");
+      assertEquals(1L, writeAll.get("count"));
+      assertEquals(10L, writeAll.get("batchSizeMax"));
+      assertTrue((Long) writeAll.get("latencyP99") > 0L);
+      assertTrue((Long) writeAll.get("hbaseTime") > 0L);
+      CompositeData loadAll = (CompositeData) server.getAttribute(name, "LoadAll");
+      assertEquals(1L, loadAll.get("count"));
+      CompositeData loadCache = (CompositeData) server.getAttribute(name, "LoadCache");
+      assertEquals(2L, loadCache.get("count"));
+      assertEquals(1L, loadCache.get("errors"));
+      assertEquals(10L, loadCache.get("batchSizeMax"));
+      CompositeData deleteAll = (CompositeData) server.getAttribute(name, "DeleteAll");
+      assertEquals(1L, deleteAll.get("count"));
+      assertTrue((Long) server.getAttribute(name, "BytesWritten") > 0L);
+      assertTrue((Long) server.getAttribute(name, "BytesRead") > 0L);
+
+      server.invoke(name, "resetStatistics", null, null);
+      writeAll = (CompositeData) server.getAttribute(name, "WriteAll");
+      assertEquals(0L, writeAll.get("count"));
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void testNegativeCache() throws IOException, ServiceException, JMException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setNegativeCacheSize(100L);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    cfg.setGridName("negativeCache");
+    String cacheName = "myCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(
+        "com.bakdata.ignite.hbase:type=HBaseCacheStore,grid=\"negativeCache\",cache=\""
+            + cacheName + "\"");
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      assertNull(cache.get("Hello"));
+      try (Connection conn = getHBaseConnection()) {
+        Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+        Serializer<Object> serializer = ObjectSerializer.INSTANCE;
+        Put put = new Put(serializer.serialize("Hello"));
+        put.addColumn(cacheName.getBytes(), QUALIFIER, serializer.serialize("World"));
+        table.put(put);
+      }
+      // remembered to be absent
+      assertNull(cache.get("Hello"));
+      assertTrue(cache.getAll(new HashSet<>(Arrays.asList("Hello", "Foo"))).isEmpty());
+      // loads answered by the negative cache are recorded as well
+      CompositeData loadAll = (CompositeData) server.getAttribute(name, "LoadAll");
+      assertEquals(3L, loadAll.get("count"));
+      assertEquals(2L, server.getAttribute(name, "NegativeCacheHits"));
+
+      // writes through the store are visible immediately
+      cache.put("Foo", "Bar");
+      cache.clear();
+      assertEquals("Bar", cache.get("Foo"));
+    }
+  }
+
+  @Test
+  public void testNegativeCacheConcurrentWrites() throws InterruptedException, ExecutionException {
+    int rows = 100_000;
+    NegativeCache negativeCache = new NegativeCache(rows, 60_000L);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      // each write increments the version, so i is the version before row i is written
+      Future<?> load = executor.submit(() -> {
+        for (int i = 0; i < rows; i++) {
+          negativeCache.addAbsent(new Get(Bytes.toBytes(i)), i);
+        }
+      });
+      Future<?> write = executor.submit(() -> {
+        for (int i = 0; i < rows; i++) {
+          negativeCache.invalidate(new Get(Bytes.toBytes(i)));
+        }
+      });
+      load.get();
+      write.get();
+    } finally {
+      executor.shutdownNow();
+    }
+    for (int i = 0; i < rows; i++) {
+      assertFalse("Written row " + i + " is absent",
+          negativeCache.isAbsent(new Get(Bytes.toBytes(i))));
+    }
+  }
+
+  @Test(expected = CacheException.class)
+  public void testNegativeCacheWithBufferedWrites() throws IOException, ServiceException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setBufferedWrites(true);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setNegativeCacheSize(100L);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache("myCache");
+      cache.get("Hello");
+    }
+  }
+
+  @Test
+  public void testOrderedSerializers() throws IOException {
+    List<Double> doubles = Arrays.asList(Double.NEGATIVE_INFINITY, -42.5, -1.0, -0.0, 0.0,
+        Double.MIN_VALUE, 1.0, 42.5, Double.POSITIVE_INFINITY, Double.NaN);
+    for (int i = 1; i < doubles.size(); i++) {
+      byte[] smaller = OrderedDoubleSerializer.INSTANCE.serialize(doubles.get(i - 1));
+      byte[] larger = OrderedDoubleSerializer.INSTANCE.serialize(doubles.get(i));
+      assertTrue(Bytes.compareTo(smaller, larger) < 0);
+      assertEquals(doubles.get(i), OrderedDoubleSerializer.INSTANCE.deserialize(larger));
+    }
+    assertTrue(Bytes.compareTo(OrderedLongSerializer.INSTANCE.serialize(-1L),
+        OrderedLongSerializer.INSTANCE.serialize(1L)) < 0);
+    assertEquals(Long.valueOf(Long.MIN_VALUE),
+        OrderedLongSerializer.INSTANCE.deserialize(
+            OrderedLongSerializer.INSTANCE.serialize(Long.MIN_VALUE)));
+    CompositeSerializer composite =
+        new CompositeSerializer(StringSerializer.INSTANCE, OrderedIntSerializer.INSTANCE);
+    List<Object> shorter = Arrays.asList("a", 5);
+    List<Object> escaped = Arrays.asList("a\0", -5);
+    assertTrue(Bytes.compareTo(composite.serialize(shorter), composite.serialize(escaped)) < 0);
+    assertEquals(escaped, composite.deserialize(composite.serialize(escaped)));
+  }
+
   @Test
   public void testOtherSerializer() throws ServiceException, IOException {
     Serializer<String> serializer = StringSerializer.INSTANCE;
@@ -417,6 +1538,47 @@ public class HBaseCacheStoreTest {
     }
   }
 
+  @Test
+  public void testPrimitiveSerializers()
+      throws ServiceException, IOException, InterruptedException {
+    // partition prefixed row keys exercise serializing into and deserializing from ranges
+    HBaseCacheStore<Integer, Long> cs = new HBaseCacheStore<>(IntSerializer.INSTANCE,
+        LongSerializer.INSTANCE);
+    cs.setPartitionAware(true);
+    HBaseCacheStore<Integer, Long> cs2 = new HBaseCacheStore<>(IntSerializer.INSTANCE,
+        LongSerializer.INSTANCE);
+    cs2.setPartitionAware(true);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    IgniteConfiguration cfg2 = prepareConfig(cs2);
+    cfg.setGridName("first");
+    cfg2.setGridName("second");
+    String cacheName = "primitiveCache";
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<Integer, Long> cache = ignite.getOrCreateCache(cacheName);
+      for (int i = -50; i < 50; i++) {
+        cache.put(i, i * 1_000_000_000_000L);
+      }
+    }
+
+    try (Ignite ignite = Ignition.getOrStart(cfg); Ignite ignite2 = Ignition.getOrStart(cfg2)) {
+      IgniteCache<Integer, Long> cache = ignite.getOrCreateCache(cacheName);
+      awaitPartitionAssignment(cacheName, ignite, ignite2);
+      cache.loadCache(null);
+      assertEquals(100, cache.size());
+      assertEquals(Long.valueOf(-42_000_000_000_000L), cache.get(-42));
+      cache.clear(42);
+      assertEquals(Long.valueOf(42_000_000_000_000L), cache.get(42));
+    }
+    // encoding must stay compatible with values written using ByteBuffer
+    byte[] buf = ByteBuffer.allocate(Long.BYTES + 2).put((byte) 1).putLong(-42L).array();
+    assertEquals(Long.valueOf(-42L), LongSerializer.INSTANCE.deserialize(buf, 1, Long.BYTES));
+    assertTrue(Arrays.equals(ByteBuffer.allocate(Integer.BYTES).putInt(-42).array(),
+        IntSerializer.INSTANCE.serialize(-42)));
+  }
+
   @Test
   public void testPersistence() {
     IgniteConfiguration cfg = prepareConfig();
@@ -437,6 +1599,148 @@ public class HBaseCacheStoreTest {
     }
   }
 
+  @Test
+  public void testSaltedKeys() throws IOException, ServiceException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setSplitKeys(HBaseCacheStore.saltSplitKeys(8, 4));
+    HBaseCacheStore<Long, Long> cs =
+        new HBaseCacheStore<>(LongSerializer.INSTANCE, LongSerializer.INSTANCE);
+    cs.setSaltBuckets(8);
+    cs.setLoadCacheThreads(4);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    String cacheName = "saltedCache";
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), tableName);
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<Long, Long> cache = ignite.getOrCreateCache(cacheName);
+      for (long i = 0L; i < 100L; i++) {
+        cache.put(i, i * i);
+      }
+    }
+    try (Connection conn = getHBaseConnection()) {
+      assertEquals(4, conn.getAdmin().getTableRegions(tableName).size());
+      Table table = conn.getTable(tableName);
+      Collection<Byte> buckets = new HashSet<>();
+      try (ResultScanner scanner = table.getScanner(cacheName.getBytes())) {
+        for (Result result : scanner) {
+          byte[] row = result.getRow();
+          assertEquals(1 + Long.BYTES, row.length);
+          buckets.add(row[0]);
+        }
+      }
+      // consecutive keys are spread across all buckets
+      assertEquals(8, buckets.size());
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<Long, Long> cache = ignite.getOrCreateCache(cacheName);
+      assertEquals(0, cache.size());
+      cache.loadCache(null);
+      assertEquals(100, cache.size());
+      assertEquals(Long.valueOf(42L * 42L), cache.get(42L));
+      cache.remove(42L);
+      cache.clear();
+      assertNull(cache.get(42L));
+    }
+  }
+
+  @Test
+  public void testScanSettings() throws IOException, ServiceException {
+    Serializer<String> serializer = StringSerializer.INSTANCE;
+    HBaseCacheStore<String, String> cs = new HBaseCacheStore<>(serializer, serializer);
+    cs.setScanCaching(10);
+    IgniteConfiguration cfg = prepareConfig(cs);
+    String cacheName = "scanCache";
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), tableName);
+    }
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      for (int i = 0; i < 100; i++) {
+        cache.put("key" + i, "value" + i);
+      }
+    }
+    try (Connection conn = getHBaseConnection()) {
+      // blocks are only cached when read from HFiles
+      conn.getAdmin().flush(tableName);
+    }
+    BlockCache blockCache = utility.getMiniHBaseCluster().getRegionServer(0).getCacheConfig()
+        .getBlockCache();
+    long cachedBlocks = blockCache.getBlockCount();
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.loadCache(null);
+      assertEquals(100, cache.size());
+    }
+    // full scans do not pollute the block cache by default
+    assertEquals(cachedBlocks, blockCache.getBlockCount());
+
+    cs.setScanCacheBlocks(true);
+    cs.setScanSmall(true);
+    try (Ignite ignite = Ignition.getOrStart(prepareConfig(cs))) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.loadCache(null, KeyPrefix.of("key1"));
+      assertEquals(11, cache.size());
+    }
+    assertTrue(blockCache.getBlockCount() > cachedBlocks);
+
+    cs.setScanSmall(false);
+    cs.setScanBatch(1);
+    try (Ignite ignite = Ignition.getOrStart(prepareConfig(cs))) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      cache.loadCache(null);
+      assertEquals(100, cache.size());
+    }
+  }
+
+  @Test
+  public void testSingleKeysWithNegativeCacheAndCoalescing()
+      throws IOException, ServiceException, JMException {
+    HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(TABLE_NAME);
+    applyHBaseConfiguration(cssl);
+    cssl.setCoalescingWrites(true);
+    cssl.setCoalescingMaxAge(0L);
+    HBaseCacheStore<Object, Object> cs = create();
+    cs.setNegativeCacheSize(100L);
+    IgniteConfiguration cfg = prepareConfig(cssl, cs, false);
+    cfg.setGridName("singleKeys");
+    String cacheName = "myCache";
+    Serializer<Object> serializer = ObjectSerializer.INSTANCE;
+    try (Connection conn = getHBaseConnection()) {
+      deleteTable(conn.getAdmin(), TableName.valueOf(TABLE_NAME));
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(
+        "com.bakdata.ignite.hbase:type=HBaseCacheStore,grid=\"singleKeys\",cache=\""
+            + cacheName + "\"");
+    try (Ignite ignite = Ignition.getOrStart(cfg)) {
+      IgniteCache<String, String> cache = ignite.getOrCreateCache(cacheName);
+      assertNull(cache.get("Hello"));
+      assertNull(cache.get("Hello"));
+      assertEquals(1L, server.getAttribute(name, "NegativeCacheHits"));
+      // buffered writes forget that rows are absent
+      cache.put("Hello", "World");
+      cache.clear();
+      assertEquals("World", cache.get("Hello"));
+      cache.remove("Hello");
+      cache.clear();
+      assertNull(cache.get("Hello"));
+      cache.put("Hello", "Again");
+      cache.clear();
+      assertEquals("Again", cache.get("Hello"));
+      CompositeData loadAll = (CompositeData) server.getAttribute(name, "LoadAll");
+      assertEquals(5L, loadAll.get("count"));
+    }
+    try (Connection conn = getHBaseConnection()) {
+      Table table = conn.getTable(TableName.valueOf(TABLE_NAME));
+      assertEquals("Again",
+          serializer.deserialize(getValue(table, serializer.serialize("Hello"), cacheName)));
+    }
+  }
+
   @Test
   public void testTableAndColumnFamilyCreation() throws IOException, ServiceException {
     try (Connection conn = getHBaseConnection()) {
@@ -468,6 +1772,61 @@ public class HBaseCacheStoreTest {
     }
   }
 
+  @Test
+  public void testTablePoolReuse() throws IOException, ServiceException {
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    try (Connection conn = getHBaseConnection();
+        TablePool pool = new TablePool(conn, 2, 60_000L)) {
+      Table table = pool.borrow(tableName);
+      pool.release(table);
+      assertSame(table, pool.borrow(tableName));
+      // borrowed tables are used exclusively
+      assertNotSame(table, pool.borrow(tableName));
+    }
+  }
+
+  @Test
+  public void testTablePoolMaxIdle() throws IOException, ServiceException {
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    try (Connection conn = getHBaseConnection()) {
+      try (TablePool pool = new TablePool(conn, 1, 60_000L)) {
+        Table first = pool.borrow(tableName);
+        Table second = pool.borrow(tableName);
+        pool.release(first);
+        // closed as the pool is full
+        pool.release(second);
+        assertSame(first, pool.borrow(tableName));
+        Table table = pool.borrow(tableName);
+        assertNotSame(first, table);
+        assertNotSame(second, table);
+      }
+      try (TablePool pool = new TablePool(conn, 0, 60_000L)) {
+        Table table = pool.borrow(tableName);
+        pool.release(table);
+        assertNotSame(table, pool.borrow(tableName));
+      }
+    }
+  }
+
+  @Test
+  public void testTablePoolIdleEviction()
+      throws IOException, ServiceException, InterruptedException {
+    TableName tableName = TableName.valueOf(TABLE_NAME);
+    try (Connection conn = getHBaseConnection();
+        TablePool pool = new TablePool(conn, 2, 100L)) {
+      Table idle = pool.borrow(tableName);
+      Table recent = pool.borrow(tableName);
+      pool.release(idle);
+      Thread.sleep(200L);
+      // closes the idle table
+      pool.release(recent);
+      assertSame(recent, pool.borrow(tableName));
+      Table table = pool.borrow(tableName);
+      assertNotSame(idle, table);
+      assertNotSame(recent, table);
+    }
+  }
+
   @Test(expected = CacheException.class)
   public void testTableNameNotNull() {
     HBaseCacheStoreSessionListener cssl = new HBaseCacheStoreSessionListener(null);
@@ -481,4 +1840,85 @@ public class HBaseCacheStoreTest {
       cache.put("Hello", "World");
     }
   }
+
+  private static final class SharedStoreFactory implements Factory<HBaseCacheStore<?, ?>> {
+
+    private static final long serialVersionUID = 1L;
+    private static HBaseCacheStore<?, ?> store;
+
+    @Override
+    public HBaseCacheStore<?, ?> create() {
+      return store;
+    }
+  }
+
+  /**
+   * Records the keys passed to the closure of {@code loadCache} by the name of the loading node.
+   */
+  private static final class LoadedKeys implements IgniteBiPredicate<String, String> {
+
+    private static final long serialVersionUID = 1L;
+    private static final ConcurrentMap<String, Collection<String>> KEYS =
+        new ConcurrentHashMap<>();
+    @IgniteInstanceResource
+    private transient Ignite ignite;
+
+    @Override
+    public boolean apply(String key, String value) {
+      KEYS.computeIfAbsent(ignite.name(), name -> new ConcurrentLinkedQueue<>()).add(key);
+      return true;
+    }
+  }
+
+  private static final class Label implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final String text;
+    private final String color;
+
+    private Label(String text, String color) {
+      this.text = text;
+      this.color = color;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Label)) {
+        return false;
+      }
+      Label other = (Label) obj;
+      return Objects.equals(text, other.text) && Objects.equals(color, other.color);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(text, color);
+    }
+  }
+
+  private static final class Point implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final int x;
+    private final int y;
+
+    private Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Point)) {
+        return false;
+      }
+      Point other = (Point) obj;
+      return x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(x, y);
+    }
+  }
 }